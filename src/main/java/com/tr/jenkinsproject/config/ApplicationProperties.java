@@ -1,5 +1,9 @@
 package com.tr.jenkinsproject.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +13,358 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Cache cache = new Cache();
+
+    private final Security security = new Security();
+
+    private final UserPurge userPurge = new UserPurge();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public UserPurge getUserPurge() {
+        return userPurge;
+    }
+
+    public static class Cache {
+
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        /**
+         * Settings of a single cache region, unset values fall back to {@code jhipster.cache.caffeine}.
+         */
+        public static class Region {
+
+            private Long maxEntries;
+
+            private Integer timeToLiveSeconds;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Integer getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+        }
+    }
+
+    /**
+     * Settings of the scheduled removal of the users who did not activate their account.
+     */
+    public static class UserPurge {
+
+        /**
+         * Number of users deleted per transaction.
+         */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Security {
+
+        /**
+         * Validity of the refresh tokens issued without remember-me, the ones issued with remember-me use
+         * {@code jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me}.
+         */
+        private long refreshTokenValidityInSeconds = 86400;
+
+        private final PasswordHashing passwordHashing = new PasswordHashing();
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        private final Jwt jwt = new Jwt();
+
+        public long getRefreshTokenValidityInSeconds() {
+            return refreshTokenValidityInSeconds;
+        }
+
+        public void setRefreshTokenValidityInSeconds(long refreshTokenValidityInSeconds) {
+            this.refreshTokenValidityInSeconds = refreshTokenValidityInSeconds;
+        }
+
+        public PasswordHashing getPasswordHashing() {
+            return passwordHashing;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public Jwt getJwt() {
+            return jwt;
+        }
+
+        /**
+         * Settings of the pool the passwords are hashed and matched on.
+         */
+        public static class PasswordHashing {
+
+            private int poolSize = Runtime.getRuntime().availableProcessors();
+
+            private int queueCapacity = 4 * Runtime.getRuntime().availableProcessors();
+
+            private long retryAfterSeconds = 1;
+
+            /**
+             * Time a single BCrypt hash may take, the strength is calibrated at startup to fit it, 0 to skip the calibration.
+             */
+            private long latencyBudgetMillis = 250;
+
+            private int minimumStrength = 10;
+
+            /**
+             * Number of passwords hashed concurrently by a bulk creation of users, leaving room in the pool for the logins.
+             */
+            private int bulkParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public long getRetryAfterSeconds() {
+                return retryAfterSeconds;
+            }
+
+            public void setRetryAfterSeconds(long retryAfterSeconds) {
+                this.retryAfterSeconds = retryAfterSeconds;
+            }
+
+            public long getLatencyBudgetMillis() {
+                return latencyBudgetMillis;
+            }
+
+            public void setLatencyBudgetMillis(long latencyBudgetMillis) {
+                this.latencyBudgetMillis = latencyBudgetMillis;
+            }
+
+            public int getMinimumStrength() {
+                return minimumStrength;
+            }
+
+            public void setMinimumStrength(int minimumStrength) {
+                this.minimumStrength = minimumStrength;
+            }
+
+            public int getBulkParallelism() {
+                return bulkParallelism;
+            }
+
+            public void setBulkParallelism(int bulkParallelism) {
+                this.bulkParallelism = bulkParallelism;
+            }
+        }
+
+        /**
+         * Settings of the rate limiting of the unauthenticated endpoints, by client address and by login.
+         */
+        public static class RateLimit {
+
+            private boolean enabled = true;
+
+            /**
+             * Number of clients and logins whose buckets are tracked, per limited path.
+             */
+            private long maxTrackedKeys = 100_000;
+
+            private List<String> paths = new ArrayList<>(
+                List.of("/api/authenticate", "/api/register", "/api/activate", "/api/account/reset-password/init")
+            );
+
+            private final Bucket perClient = new Bucket(20, 60);
+
+            private final Bucket perLogin = new Bucket(5, 300);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getMaxTrackedKeys() {
+                return maxTrackedKeys;
+            }
+
+            public void setMaxTrackedKeys(long maxTrackedKeys) {
+                this.maxTrackedKeys = maxTrackedKeys;
+            }
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public Bucket getPerClient() {
+                return perClient;
+            }
+
+            public Bucket getPerLogin() {
+                return perLogin;
+            }
+
+            /**
+             * A token bucket holding up to {@code capacity} requests, refilled completely over {@code refillPeriodSeconds}.
+             */
+            public static class Bucket {
+
+                private int capacity;
+
+                private long refillPeriodSeconds;
+
+                public Bucket(int capacity, long refillPeriodSeconds) {
+                    this.capacity = capacity;
+                    this.refillPeriodSeconds = refillPeriodSeconds;
+                }
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public long getRefillPeriodSeconds() {
+                    return refillPeriodSeconds;
+                }
+
+                public void setRefillPeriodSeconds(long refillPeriodSeconds) {
+                    this.refillPeriodSeconds = refillPeriodSeconds;
+                }
+            }
+        }
+
+        /**
+         * Settings of the signature of the access tokens.
+         */
+        public static class Jwt {
+
+            /**
+             * {@code HS512} to sign with the {@code jhipster.security.authentication.jwt} secret, or {@code ES256} to sign
+             * with the first of the {@code keys} and publish their public parts on {@code /.well-known/jwks.json}.
+             */
+            private String algorithm = "HS512";
+
+            /**
+             * The ES256 key pairs, the first one signs the new tokens and the others only verify the tokens they signed
+             * before a rotation. Required by ES256, all the instances need the same keys.
+             */
+            private List<SigningKey> keys = new ArrayList<>();
+
+            /**
+             * Encode the authorities of the tokens as a bitmask over the authorities stored in the database, instead of
+             * their comma-separated names.
+             */
+            private boolean compactAuthorities = false;
+
+            public String getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(String algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public List<SigningKey> getKeys() {
+                return keys;
+            }
+
+            public void setKeys(List<SigningKey> keys) {
+                this.keys = keys;
+            }
+
+            public boolean isCompactAuthorities() {
+                return compactAuthorities;
+            }
+
+            public void setCompactAuthorities(boolean compactAuthorities) {
+                this.compactAuthorities = compactAuthorities;
+            }
+
+            /**
+             * An EC P-256 key pair identified by the {@code kid} header of the tokens it signs.
+             */
+            public static class SigningKey {
+
+                private String id;
+
+                /**
+                 * Base64-encoded PKCS#8 private key, only required for the first key.
+                 */
+                private String privateKey;
+
+                /**
+                 * Base64-encoded X.509 public key.
+                 */
+                private String publicKey;
+
+                public String getId() {
+                    return id;
+                }
+
+                public void setId(String id) {
+                    this.id = id;
+                }
+
+                public String getPrivateKey() {
+                    return privateKey;
+                }
+
+                public void setPrivateKey(String privateKey) {
+                    this.privateKey = privateKey;
+                }
+
+                public String getPublicKey() {
+                    return publicKey;
+                }
+
+                public void setPublicKey(String publicKey) {
+                    this.publicKey = publicKey;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.tr.jenkinsproject.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Configuration of the Caffeine caches, exposed through JCache to Hibernate as its second-level cache.
+ * <p>
+ * Every cache records its statistics, which are exported to Micrometer by Spring Boot as the {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    private final JHipsterProperties.Cache.Caffeine caffeine;
+
+    private final ApplicationProperties.Cache cacheProperties;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.caffeine = jHipsterProperties.getCache().getCaffeine();
+        this.cacheProperties = applicationProperties.getCache();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, com.tr.jenkinsproject.domain.Authority.class.getName());
+            createCache(cm, com.tr.jenkinsproject.domain.User.class.getName() + ".authorities");
+            createCache(cm, com.tr.jenkinsproject.domain.CaseDefinition.class.getName());
+            createCache(cm, com.tr.jenkinsproject.security.UserDetailsCache.USER_DETAILS_BY_LOGIN_CACHE);
+            createCache(cm, com.tr.jenkinsproject.security.UserDetailsCache.USER_DETAILS_BY_EMAIL_CACHE);
+        };
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        } else {
+            cm.createCache(cacheName, jcacheConfiguration(cacheName));
+        }
+    }
+
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().get(cacheName);
+        long maxEntries = caffeine.getMaxEntries();
+        long timeToLiveSeconds = caffeine.getTimeToLiveSeconds();
+        if (region != null && region.getMaxEntries() != null) {
+            maxEntries = region.getMaxEntries();
+        }
+        if (region != null && region.getTimeToLiveSeconds() != null) {
+            timeToLiveSeconds = region.getTimeToLiveSeconds();
+        }
+
+        CaffeineConfiguration<Object, Object> caffeineConfiguration = new CaffeineConfiguration<>();
+        caffeineConfiguration.setMaximumSize(OptionalLong.of(maxEntries));
+        caffeineConfiguration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(timeToLiveSeconds)));
+        caffeineConfiguration.setStatisticsEnabled(true);
+        return caffeineConfiguration;
+    }
+}
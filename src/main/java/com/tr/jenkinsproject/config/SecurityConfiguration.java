@@ -2,6 +2,8 @@ package com.tr.jenkinsproject.config;
 
 import com.tr.jenkinsproject.security.*;
 import com.tr.jenkinsproject.security.jwt.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -12,7 +14,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
 import org.springframework.web.filter.CorsFilter;
@@ -24,28 +26,49 @@ import tech.jhipster.config.JHipsterProperties;
 @Import(SecurityProblemSupport.class)
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
     private final JHipsterProperties jHipsterProperties;
 
-    private final TokenProvider tokenProvider;
+    private final JWTAuthenticationCache authenticationCache;
+
+    private final RateLimiter rateLimiter;
 
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
     public SecurityConfiguration(
-        TokenProvider tokenProvider,
+        JWTAuthenticationCache authenticationCache,
+        RateLimiter rateLimiter,
         CorsFilter corsFilter,
         JHipsterProperties jHipsterProperties,
         SecurityProblemSupport problemSupport
     ) {
-        this.tokenProvider = tokenProvider;
+        this.authenticationCache = authenticationCache;
+        this.rateLimiter = rateLimiter;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
         this.jHipsterProperties = jHipsterProperties;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.PasswordHashing passwordHashing = applicationProperties.getSecurity().getPasswordHashing();
+        int strength = BCryptStrengthCalibrator.calibrate(passwordHashing.getLatencyBudgetMillis(), passwordHashing.getMinimumStrength());
+        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(
+            BCRYPT_ID,
+            Collections.singletonMap(BCRYPT_ID, bCryptPasswordEncoder)
+        );
+        // hashes stored before the {bcrypt} prefix was introduced, they are re-encoded on the next login
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+        return new BoundedPasswordEncoder(
+            delegatingPasswordEncoder,
+            passwordHashing.getPoolSize(),
+            passwordHashing.getQueueCapacity(),
+            passwordHashing.getRetryAfterSeconds(),
+            meterRegistry
+        );
     }
 
     @Override
@@ -60,6 +83,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .csrf()
             .disable()
             .addFilterBefore(corsFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(new RateLimitFilter(rateLimiter), UsernamePasswordAuthenticationFilter.class)
             .exceptionHandling()
                 .authenticationEntryPoint(problemSupport)
                 .accessDeniedHandler(problemSupport)
@@ -79,6 +103,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         .and()
             .authorizeRequests()
             .antMatchers("/api/authenticate").permitAll()
+            .antMatchers("/api/token/refresh").permitAll()
             .antMatchers("/api/register").permitAll()
             .antMatchers("/api/activate").permitAll()
             .antMatchers("/api/account/reset-password/init").permitAll()
@@ -90,6 +115,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .antMatchers("/management/info").permitAll()
             .antMatchers("/management/prometheus").permitAll()
             .antMatchers("/management/**").hasAuthority(AuthoritiesConstants.ADMIN)
+            .antMatchers("/.well-known/jwks.json").permitAll()
         .and()
             .httpBasic()
         .and()
@@ -98,6 +124,6 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     }
 
     private JWTConfigurer securityConfigurerAdapter() {
-        return new JWTConfigurer(tokenProvider);
+        return new JWTConfigurer(authenticationCache);
     }
 }
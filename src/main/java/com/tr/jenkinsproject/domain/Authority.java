@@ -8,12 +8,15 @@ import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * An authority (a security role) used by Spring Security.
  */
 @Entity
 @Table(name = "jhi_authority")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class Authority implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -40,7 +43,8 @@ public class Authority implements Serializable {
         if (!(o instanceof Authority)) {
             return false;
         }
-        return Objects.equals(name, ((Authority) o).name);
+        // Through the getter, the authorities linked to users may be Hibernate proxies
+        return Objects.equals(name, ((Authority) o).getName());
     }
 
     @Override
@@ -1,13 +1,18 @@
 package com.tr.jenkinsproject.domain;
 
+import com.tr.jenkinsproject.repository.TableVersionListener;
 import java.io.Serializable;
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A CaseDefinition.
  */
 @Entity
 @Table(name = "case_definition")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(TableVersionListener.class)
 public class CaseDefinition implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -30,6 +35,10 @@ public class CaseDefinition implements Serializable {
     @Column(name = "active")
     private Boolean active;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -84,6 +93,19 @@ public class CaseDefinition implements Serializable {
         this.active = active;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public CaseDefinition version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
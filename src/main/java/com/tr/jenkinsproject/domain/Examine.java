@@ -24,6 +24,10 @@ public class Examine implements Serializable {
     @ManyToOne
     private CaseDefinition fk_examine__case_definition_id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -65,6 +69,19 @@ public class Examine implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Examine version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
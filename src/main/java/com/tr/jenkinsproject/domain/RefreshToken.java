@@ -0,0 +1,135 @@
+package com.tr.jenkinsproject.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * A refresh token, used to get new access tokens without authenticating again.
+ * <p>
+ * Only the SHA-256 hash of the token is stored.
+ */
+@Entity
+@Table(name = "jhi_refresh_token")
+public class RefreshToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "token_hash", length = 64, nullable = false, unique = true)
+    private String tokenHash;
+
+    @NotNull
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @NotNull
+    @Column(name = "remember_me", nullable = false)
+    private Boolean rememberMe;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public RefreshToken id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return this.tokenHash;
+    }
+
+    public RefreshToken tokenHash(String tokenHash) {
+        this.setTokenHash(tokenHash);
+        return this;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public RefreshToken userId(Long userId) {
+        this.setUserId(userId);
+        return this;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Boolean getRememberMe() {
+        return this.rememberMe;
+    }
+
+    public RefreshToken rememberMe(Boolean rememberMe) {
+        this.setRememberMe(rememberMe);
+        return this;
+    }
+
+    public void setRememberMe(Boolean rememberMe) {
+        this.rememberMe = rememberMe;
+    }
+
+    public Instant getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    public RefreshToken expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RefreshToken)) {
+            return false;
+        }
+        return id != null && id.equals(((RefreshToken) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+            "id=" + getId() +
+            ", userId=" + getUserId() +
+            ", rememberMe='" + getRememberMe() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            "}";
+    }
+}
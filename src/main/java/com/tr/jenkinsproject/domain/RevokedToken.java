@@ -0,0 +1,100 @@
+package com.tr.jenkinsproject.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * A JWT revoked before its expiration, identified by its {@code jti} claim.
+ */
+@Entity
+@Table(name = "jhi_revoked_token")
+public class RevokedToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 36)
+    @Id
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @NotNull
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public RevokedToken tokenId(String tokenId) {
+        this.setTokenId(tokenId);
+        return this;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public RevokedToken expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public RevokedToken revokedAt(Instant revokedAt) {
+        this.setRevokedAt(revokedAt);
+        return this;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RevokedToken)) {
+            return false;
+        }
+        return Objects.equals(tokenId, ((RevokedToken) o).tokenId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(tokenId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+            "tokenId='" + tokenId + '\'' +
+            ", expiresAt='" + expiresAt + "'" +
+            ", revokedAt='" + revokedAt + "'" +
+            "}";
+    }
+}
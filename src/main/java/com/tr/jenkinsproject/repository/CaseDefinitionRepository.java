@@ -1,7 +1,9 @@
 package com.tr.jenkinsproject.repository;
 
 import com.tr.jenkinsproject.domain.CaseDefinition;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,29 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CaseDefinitionRepository extends JpaRepository<CaseDefinition, Long> {}
+public interface CaseDefinitionRepository
+    extends CaseDefinitionRepositoryWithSearch, JpaRepository<CaseDefinition, Long>, JpaSpecificationExecutor<CaseDefinition> {
+    @Query("select caseDefinition.version from CaseDefinition caseDefinition where caseDefinition.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Update the caseDefinition if it still has the given version, and increment its version, in a single statement.
+     * <p>
+     * The change is not counted by the {@link TableVersionListener}, the caller counts it in {@link TableVersionRepository}.
+     *
+     * @return {@code 1} if the caseDefinition was updated, {@code 0} if it does not exist or has another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update CaseDefinition caseDefinition set caseDefinition.name = :name, caseDefinition.description = :description, " +
+        "caseDefinition.active = :active, caseDefinition.version = caseDefinition.version + 1 " +
+        "where caseDefinition.id = :id and caseDefinition.version = :version"
+    )
+    int updateIfVersionMatches(
+        @Param("id") Long id,
+        @Param("version") Long version,
+        @Param("name") String name,
+        @Param("description") String description,
+        @Param("active") Boolean active
+    );
+}
@@ -0,0 +1,24 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.CaseDefinition;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Repository fragment to search {@link CaseDefinition} entities by the words of their name and description.
+ */
+public interface CaseDefinitionRepositoryWithSearch {
+    /**
+     * Search the case definitions matching the given query, best ranked first.
+     * <p>
+     * On PostgreSQL the name and description are matched with full-text search and the name is also matched by
+     * trigram similarity, so misspelled names are found. Other databases fall back to a case-insensitive {@code LIKE}.
+     * The hits are ordered by rank then id, and read with keyset pagination after the given rank and id.
+     *
+     * @param query the words to search.
+     * @param afterRank the rank of the last hit already read, or {@code null} for the first slice.
+     * @param afterId the id of the last hit already read, or {@code null} for the first slice.
+     * @param size the size of the slice.
+     * @return the slice of matching case definitions with their rank.
+     */
+    Slice<SearchHit<CaseDefinition>> search(String query, Float afterRank, Long afterId, int size);
+}
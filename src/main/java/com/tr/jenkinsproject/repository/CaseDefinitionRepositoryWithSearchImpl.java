@@ -0,0 +1,74 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.CaseDefinition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+public class CaseDefinitionRepositoryWithSearchImpl implements CaseDefinitionRepositoryWithSearch {
+
+    private static final String POSTGRESQL_HITS =
+        "select cd.id, cd.name, cd.description, cd.active, cd.version, " +
+        "greatest(ts_rank(cd.search_vector, websearch_to_tsquery('simple', :query)), similarity(cd.name, :query)) as search_rank " +
+        "from case_definition cd " +
+        "where cd.search_vector @@ websearch_to_tsquery('simple', :query) or cd.name % :query";
+
+    private static final String LIKE_HITS =
+        "select cd.id, cd.name, cd.description, cd.active, cd.version, " +
+        "cast(case when lower(cd.name) like :query escape '\\' then 1 else 0.5 end as real) as search_rank " +
+        "from case_definition cd " +
+        "where lower(cd.name) like :query escape '\\' or lower(cd.description) like :query escape '\\'";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Slice<SearchHit<CaseDefinition>> search(String query, Float afterRank, Long afterId, int size) {
+        boolean postgreSQL = isPostgreSQL();
+        StringBuilder sql = new StringBuilder("select {hits.*}, hits.search_rank from (")
+            .append(postgreSQL ? POSTGRESQL_HITS : LIKE_HITS)
+            .append(") hits");
+        if (afterRank != null && afterId != null) {
+            sql.append(" where hits.search_rank < :afterRank or (hits.search_rank = :afterRank and hits.id > :afterId)");
+        }
+        sql.append(" order by hits.search_rank desc, hits.id asc");
+
+        NativeQuery<Object[]> nativeQuery = entityManager
+            .createNativeQuery(sql.toString())
+            .unwrap(NativeQuery.class)
+            .addEntity("hits", CaseDefinition.class)
+            .addScalar("search_rank", StandardBasicTypes.FLOAT);
+        nativeQuery.setParameter("query", postgreSQL ? query : toLikePattern(query));
+        if (afterRank != null && afterId != null) {
+            nativeQuery.setParameter("afterRank", afterRank).setParameter("afterId", afterId);
+        }
+        List<Object[]> rows = nativeQuery.setMaxResults(size + 1).getResultList();
+
+        boolean hasNext = rows.size() > size;
+        List<SearchHit<CaseDefinition>> hits = new ArrayList<>(Math.min(rows.size(), size));
+        for (Object[] row : rows.subList(0, Math.min(rows.size(), size))) {
+            hits.add(new SearchHit<>((CaseDefinition) row[0], (Float) row[1]));
+        }
+        return new SliceImpl<>(hits, PageRequest.of(0, size), hasNext);
+    }
+
+    private boolean isPostgreSQL() {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        return sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQL81Dialect;
+    }
+
+    private static String toLikePattern(String query) {
+        String escaped = query.toLowerCase(Locale.ROOT).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
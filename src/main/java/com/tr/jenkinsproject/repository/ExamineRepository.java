@@ -1,7 +1,17 @@
 package com.tr.jenkinsproject.repository;
 
+import com.tr.jenkinsproject.domain.CaseDefinition;
 import com.tr.jenkinsproject.domain.Examine;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +19,72 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ExamineRepository extends JpaRepository<Examine, Long> {}
+public interface ExamineRepository
+    extends ExamineRepositoryWithBulkInsert, JpaRepository<Examine, Long>, JpaSpecificationExecutor<Examine> {
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * The case definition of the examines is fetched in the same query, so that reading a page does not run one
+     * more select per case definition.
+     */
+    String CASE_DEFINITION = "fk_examine__case_definition_id";
+
+    @Override
+    @EntityGraph(attributePaths = CASE_DEFINITION)
+    List<Examine> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = CASE_DEFINITION)
+    Page<Examine> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = CASE_DEFINITION)
+    Optional<Examine> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = CASE_DEFINITION)
+    List<Examine> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = CASE_DEFINITION)
+    List<Examine> findAll(Specification<Examine> spec);
+
+    @Override
+    @EntityGraph(attributePaths = CASE_DEFINITION)
+    Page<Examine> findAll(Specification<Examine> spec, Pageable pageable);
+
+    @Query("select examine.version from Examine examine where examine.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(
+        "select examine.version as version, caseDefinition.version as caseDefinitionVersion from Examine examine " +
+        "left join examine.fk_examine__case_definition_id caseDefinition where examine.id = :id"
+    )
+    Optional<ExamineVersions> findVersionsById(@Param("id") Long id);
+
+    /**
+     * Update the examine if it still has the given version, and increment its version, in a single statement.
+     *
+     * @return {@code 1} if the examine was updated, {@code 0} if it does not exist or has another version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update Examine examine set examine.name = :name, examine.fk_examine__case_definition_id = :caseDefinition, " +
+        "examine.version = examine.version + 1 where examine.id = :id and examine.version = :version"
+    )
+    int updateIfVersionMatches(
+        @Param("id") Long id,
+        @Param("version") Long version,
+        @Param("name") String name,
+        @Param("caseDefinition") CaseDefinition caseDefinition
+    );
+
+    @EntityGraph(attributePaths = CASE_DEFINITION)
+    @QueryHints(
+        {
+            @QueryHint(name = QueryHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = QueryHints.HINT_READONLY, value = "true"),
+        }
+    )
+    Stream<Examine> streamAllByOrderByIdAsc();
+}
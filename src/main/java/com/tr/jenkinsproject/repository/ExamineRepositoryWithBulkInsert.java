@@ -0,0 +1,20 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.Examine;
+import java.util.List;
+
+/**
+ * Repository fragment to insert a large number of {@link Examine} entities at once.
+ */
+public interface ExamineRepositoryWithBulkInsert {
+    /**
+     * Insert the given examines using JDBC batching.
+     * <p>
+     * The persistence context is flushed and cleared after every JDBC batch, so the given entities are detached
+     * once this method returns, with their generated ids set.
+     *
+     * @param examines the new examines to insert.
+     * @return the inserted examines.
+     */
+    List<Examine> insertAll(List<Examine> examines);
+}
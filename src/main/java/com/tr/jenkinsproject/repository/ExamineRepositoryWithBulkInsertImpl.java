@@ -0,0 +1,30 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.Examine;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+
+public class ExamineRepositoryWithBulkInsertImpl implements ExamineRepositoryWithBulkInsert {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}")
+    private int batchSize;
+
+    @Override
+    public List<Examine> insertAll(List<Examine> examines) {
+        for (int i = 0; i < examines.size(); i++) {
+            entityManager.persist(examines.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return examines;
+    }
+}
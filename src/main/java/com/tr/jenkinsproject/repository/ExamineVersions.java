@@ -0,0 +1,10 @@
+package com.tr.jenkinsproject.repository;
+
+/**
+ * Versions of an examine and of the case definition embedded in its representation, if any.
+ */
+public interface ExamineVersions {
+    Long getVersion();
+
+    Long getCaseDefinitionVersion();
+}
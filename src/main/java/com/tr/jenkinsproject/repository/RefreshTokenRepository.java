@@ -0,0 +1,37 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.RefreshToken;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RefreshToken} entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    /**
+     * Delete a token, the returned count tells which of concurrent uses of the same token won.
+     */
+    @Modifying
+    @Query("delete from RefreshToken r where r.id = :id")
+    int deleteOneById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,23 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.RevokedToken;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RevokedToken} entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    @Query("select r.tokenId from RevokedToken r where r.revokedAt >= :since and r.expiresAt > :now")
+    List<String> findTokenIdsRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
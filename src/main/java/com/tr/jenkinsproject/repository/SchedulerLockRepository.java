@@ -0,0 +1,90 @@
+package com.tr.jenkinsproject.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Repository for the {@code jhi_scheduler_lock} table, the locks making a scheduled task run on a single instance at a time.
+ * <p>
+ * A lock is a row per task, held until its {@code locked_until} time: it is acquired by moving that time forward when it
+ * has passed, or by inserting the row of a task locked for the first time, both of which only one instance can do.
+ * <p>
+ * The locks are acquired and released in their own transactions, committed before returning, so that the other instances
+ * see them whatever the transaction of the caller.
+ */
+@Repository
+public class SchedulerLockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public SchedulerLockRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Acquire the lock of a task if it is not held.
+     *
+     * @param name the name of the task.
+     * @param now the current time.
+     * @param lockedUntil the time the lock is released at, if the instance holding it dies.
+     * @param lockedBy the instance acquiring the lock.
+     * @return true if the lock has been acquired.
+     */
+    public boolean tryLock(String name, Instant now, Instant lockedUntil, String lockedBy) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> updateOrInsertLock(name, now, lockedUntil, lockedBy)));
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Release the lock of a task.
+     *
+     * @param name the name of the task.
+     * @param lockedUntil the time the lock can be acquired again from.
+     * @param lockedBy the instance holding the lock.
+     */
+    public void unlock(String name, Instant lockedUntil, String lockedBy) {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "update jhi_scheduler_lock set locked_until = ? where name = ? and locked_by = ?",
+                Timestamp.from(lockedUntil),
+                name,
+                lockedBy
+            )
+        );
+    }
+
+    private boolean updateOrInsertLock(String name, Instant now, Instant lockedUntil, String lockedBy) {
+        int updated = jdbcTemplate.update(
+            "update jhi_scheduler_lock set locked_until = ?, locked_at = ?, locked_by = ? where name = ? and locked_until <= ?",
+            Timestamp.from(lockedUntil),
+            Timestamp.from(now),
+            lockedBy,
+            name,
+            Timestamp.from(now)
+        );
+        if (updated > 0) {
+            return true;
+        }
+        jdbcTemplate.update(
+            "insert into jhi_scheduler_lock (name, locked_until, locked_at, locked_by) values (?, ?, ?, ?)",
+            name,
+            Timestamp.from(lockedUntil),
+            Timestamp.from(now),
+            lockedBy
+        );
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.tr.jenkinsproject.repository;
+
+/**
+ * An entity matched by a full-text search, with the rank of the match.
+ *
+ * @param <T> the type of the matched entity.
+ */
+public final class SearchHit<T> {
+
+    private final T entity;
+
+    private final float rank;
+
+    public SearchHit(T entity, float rank) {
+        this.entity = entity;
+        this.rank = rank;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchHit{" +
+            "entity=" + entity +
+            ", rank=" + rank +
+            "}";
+    }
+}
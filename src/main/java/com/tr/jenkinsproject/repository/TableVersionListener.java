@@ -0,0 +1,27 @@
+package com.tr.jenkinsproject.repository;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import javax.persistence.Table;
+
+/**
+ * Entity listener counting the changes of the table of an entity in {@link TableVersionRepository}.
+ * <p>
+ * The bulk updates of the repositories do not notify the entity listeners, so their callers count the change.
+ */
+public class TableVersionListener {
+
+    private final TableVersionRepository tableVersionRepository;
+
+    public TableVersionListener(TableVersionRepository tableVersionRepository) {
+        this.tableVersionRepository = tableVersionRepository;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        tableVersionRepository.increment(entity.getClass().getAnnotation(Table.class).name());
+    }
+}
@@ -0,0 +1,44 @@
+package com.tr.jenkinsproject.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the {@code jhi_table_version} table, a change counter per table incremented with every insert, update
+ * and delete of its rows, in the transaction changing them.
+ * <p>
+ * The row of a table is created by its Liquibase changelog, and locked by each transaction changing the table until it
+ * commits: only tables with few writers are counted.
+ */
+@Repository
+public class TableVersionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TableVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Read the change counter of a table.
+     *
+     * @param tableName the name of the table.
+     * @return the number of changes of the table.
+     */
+    public long findVersion(String tableName) {
+        Long version = jdbcTemplate.queryForObject("select version from jhi_table_version where table_name = ?", Long.class, tableName);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Count a change of a table.
+     *
+     * @param tableName the name of the table.
+     * @throws IllegalStateException if the table has no change counter.
+     */
+    public void increment(String tableName) {
+        if (jdbcTemplate.update("update jhi_table_version set version = version + 1 where table_name = ?", tableName) == 0) {
+            throw new IllegalStateException("The table " + tableName + " has no change counter");
+        }
+    }
+}
@@ -2,34 +2,70 @@ package com.tr.jenkinsproject.repository;
 
 import com.tr.jenkinsproject.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the {@link User} entity.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository
+    extends JpaRepository<User, Long>, UserRepositoryWithBulkInsert, UserRepositoryWithSearch, UserRepositoryWithPurge {
     Optional<User> findOneByActivationKey(String activationKey);
 
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
 
+    @Query(
+        "select u.id from User u where u.id > :afterId and u.activated = false and u.activationKey is not null" +
+        " and u.createdDate < :createdBefore order by u.id"
+    )
+    List<Long> findIdsOfNotActivatedUsers(@Param("afterId") long afterId, @Param("createdBefore") Instant createdBefore, Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "delete from User u where u.id > :afterId and u.id <= :toId and u.activated = false and u.activationKey is not null" +
+        " and u.createdDate < :createdBefore"
+    )
+    int deleteNotActivatedUsers(@Param("afterId") long afterId, @Param("toId") long toId, @Param("createdBefore") Instant createdBefore);
+
     Optional<User> findOneByResetKey(String resetKey);
 
-    Optional<User> findOneByEmailIgnoreCase(String email);
+    @Query("select u from User u where lower(u.email) = lower(:email)")
+    Optional<User> findOneByEmailIgnoreCase(@Param("email") String email);
 
     Optional<User> findOneByLogin(String login);
 
+    @Query("select u.login from User u where u.login in :logins")
+    Set<String> findLoginsIn(@Param("logins") Collection<String> logins);
+
+    @Query("select lower(u.email) from User u where lower(u.email) in :emails")
+    Set<String> findEmailsIgnoreCaseIn(@Param("emails") Collection<String> emails);
+
+    @EntityGraph(attributePaths = "authorities")
+    Optional<User> findOneWithAuthoritiesById(Long id);
+
     @EntityGraph(attributePaths = "authorities")
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
+    @Query("select u from User u where lower(u.email) = lower(:email)")
+    Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(@Param("email") String email);
+
+    @Query(value = "select u.id from User u", countQuery = "select count(u) from User u")
+    Page<Long> findAllIds(Pageable pageable);
+
+    @Query("select distinct u from User u left join fetch u.authorities where u.id in :ids")
+    List<User> findAllWithAuthoritiesByIdIn(@Param("ids") Collection<Long> ids);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
 }
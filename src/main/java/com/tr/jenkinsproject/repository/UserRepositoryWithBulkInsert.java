@@ -0,0 +1,21 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.User;
+import java.util.List;
+
+/**
+ * Repository fragment to insert a large number of {@link User} entities at once.
+ */
+public interface UserRepositoryWithBulkInsert {
+    /**
+     * Insert the given users and their authority links using JDBC batching, in a single transaction.
+     * <p>
+     * The authorities of the users are only needed by name, they are linked without being loaded. The persistence context
+     * is flushed and cleared after every JDBC batch, so the given entities are detached once this method returns, with
+     * their generated ids set.
+     *
+     * @param users the new users to insert.
+     * @return the inserted users.
+     */
+    List<User> insertAll(List<User> users);
+}
@@ -0,0 +1,32 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.User;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+public class UserRepositoryWithBulkInsertImpl implements UserRepositoryWithBulkInsert {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public List<User> insertAll(List<User> users) {
+        for (int i = 0; i < users.size(); i++) {
+            entityManager.persist(users.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return users;
+    }
+}
@@ -0,0 +1,21 @@
+package com.tr.jenkinsproject.repository;
+
+import java.time.Instant;
+
+/**
+ * Repository fragment to delete the users who did not activate their account, without loading them.
+ */
+public interface UserRepositoryWithPurge {
+    /**
+     * Delete the authority links of the not activated users of a range of ids, created before a given time.
+     * <p>
+     * Only the second level cache region of the authorities of the users is invalidated by the deletion, the other
+     * regions are kept.
+     *
+     * @param afterId the id after which the users are deleted, excluded.
+     * @param toId the id up to which the users are deleted, included.
+     * @param createdBefore the time the users were created before.
+     * @return the number of authority links deleted.
+     */
+    int deleteAuthoritiesOfNotActivatedUsers(long afterId, long toId, Instant createdBefore);
+}
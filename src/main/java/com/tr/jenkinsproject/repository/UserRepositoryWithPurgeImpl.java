@@ -0,0 +1,33 @@
+package com.tr.jenkinsproject.repository;
+
+import java.time.Instant;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+public class UserRepositoryWithPurgeImpl implements UserRepositoryWithPurge {
+
+    private static final String USER_AUTHORITY_TABLE = "jhi_user_authority";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int deleteAuthoritiesOfNotActivatedUsers(long afterId, long toId, Instant createdBefore) {
+        entityManager.flush();
+        // without a query space, Hibernate would clear every region of the second level cache after a native statement
+        return entityManager
+            .createNativeQuery(
+                "delete from " +
+                USER_AUTHORITY_TABLE +
+                " where user_id in (select id from jhi_user where id > :afterId and id <= :toId" +
+                " and activated = false and activation_key is not null and created_date < :createdBefore)"
+            )
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace(USER_AUTHORITY_TABLE)
+            .setParameter("afterId", afterId)
+            .setParameter("toId", toId)
+            .setParameter("createdBefore", createdBefore)
+            .executeUpdate();
+    }
+}
@@ -0,0 +1,29 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.User;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Repository fragment to search {@link User} entities by their login, email and names.
+ */
+public interface UserRepositoryWithSearch {
+    /**
+     * Search the ids of the users whose login starts with the given query, or whose email, first name or last name contains it,
+     * ignoring case.
+     * <p>
+     * On PostgreSQL the matches are served by trigram indexes. The users are ordered by the given property, nulls last,
+     * then by id, and read with keyset pagination after the given value and id. Only the ids are read, so that the users
+     * can then be loaded with their authorities in a single query.
+     *
+     * @param query the text to search.
+     * @param order the order of the users, on a single property of {@link User}.
+     * @param afterValue the value of the ordered property of the last user already read, as returned by
+     * {@link String#valueOf(Object)}, or {@code null} if that value was null or for the first slice.
+     * @param afterId the id of the last user already read, or {@code null} for the first slice.
+     * @param size the size of the slice.
+     * @return the slice of the ids of the matching users, in order.
+     * @throws IllegalArgumentException if the ordered property is unknown or the value cannot be converted to its type.
+     */
+    Slice<Long> searchIds(String query, Sort.Order order, String afterValue, Long afterId, int size);
+}
@@ -0,0 +1,98 @@
+package com.tr.jenkinsproject.repository;
+
+import com.tr.jenkinsproject.domain.User;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+public class UserRepositoryWithSearchImpl implements UserRepositoryWithSearch {
+
+    private static final String MATCHES =
+        "(u.login like :loginPrefix escape '\\' or lower(u.email) like :pattern escape '\\'" +
+        " or lower(u.firstName) like :pattern escape '\\' or lower(u.lastName) like :pattern escape '\\')";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Long> searchIds(String query, Sort.Order order, String afterValue, Long afterId, int size) {
+        String property = order.getProperty();
+        Class<?> propertyType = propertyType(property);
+        Object after = afterValue == null ? null : convert(afterValue, propertyType);
+        StringBuilder jpql = new StringBuilder("select u.id from User u where ").append(MATCHES);
+        if (afterId != null) {
+            if (after == null) {
+                jpql.append(" and u.").append(property).append(" is null and u.id > :afterId");
+            } else {
+                jpql
+                    .append(" and (u.")
+                    .append(property)
+                    .append(order.isAscending() ? " > " : " < ")
+                    .append(":afterValue or (u.")
+                    .append(property)
+                    .append(" = :afterValue and u.id > :afterId) or u.")
+                    .append(property)
+                    .append(" is null)");
+            }
+        }
+        jpql
+            .append(" order by u.")
+            .append(property)
+            .append(order.isAscending() ? " asc" : " desc")
+            .append(" nulls last, u.id asc");
+
+        String escaped = query.toLowerCase(Locale.ROOT).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        TypedQuery<Long> typedQuery = entityManager
+            .createQuery(jpql.toString(), Long.class)
+            .setParameter("loginPrefix", escaped + "%")
+            .setParameter("pattern", "%" + escaped + "%");
+        if (afterId != null) {
+            typedQuery.setParameter("afterId", afterId);
+            if (after != null) {
+                typedQuery.setParameter("afterValue", after);
+            }
+        }
+        List<Long> ids = typedQuery.setMaxResults(size + 1).getResultList();
+
+        boolean hasNext = ids.size() > size;
+        return new SliceImpl<>(ids.subList(0, Math.min(ids.size(), size)), PageRequest.of(0, size, Sort.by(order)), hasNext);
+    }
+
+    /**
+     * Get the type of a property of {@link User}, which also checks that the property exists before it is used in a query.
+     */
+    private Class<?> propertyType(String property) {
+        return entityManager.getMetamodel().entity(User.class).getAttribute(property).getJavaType();
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        }
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            if (!"true".equals(value) && !"false".equals(value)) {
+                throw new IllegalArgumentException("Invalid boolean " + value);
+            }
+            return Boolean.valueOf(value);
+        }
+        if (type == Instant.class) {
+            try {
+                return Instant.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid instant " + value, e);
+            }
+        }
+        throw new IllegalArgumentException("Unsupported keyset property type " + type.getName());
+    }
+}
@@ -0,0 +1,270 @@
+package com.tr.jenkinsproject.security;
+
+import com.tr.jenkinsproject.domain.Authority;
+import com.tr.jenkinsproject.repository.AuthorityRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of the authorities stored in the database, each one with a shared {@link GrantedAuthority} instance and a bit index.
+ * <p>
+ * The authorities are loaded once, and reloaded periodically or when a token refers to an unknown set of authorities, so
+ * that reading the authorities, or linking them to a user, doesn't query the database.
+ * <p>
+ * The indexes follow the order of the authority names, and each set of indexes is identified by a version computed from
+ * the names, so that all the instances of the application agree on it. A set of authorities is then encoded as a bitmask
+ * tagged with that version, and decoded back into the shared instances. The previous version is kept after a change of
+ * the authorities, so that the bitmasks encoded just before it can still be decoded.
+ */
+@Component
+public class AuthorityRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorityRegistry.class);
+
+    /**
+     * Minimum interval between two reloads triggered by an unknown version.
+     */
+    private static final long RELOAD_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * Number of decoded single-word bitmasks kept per version.
+     */
+    private static final int MAXIMUM_DECODED_MASKS = 1024;
+
+    private final AuthorityRepository authorityRepository;
+
+    private volatile Snapshot current;
+
+    private volatile Snapshot previous;
+
+    private volatile long lastReloadNanos;
+
+    public AuthorityRegistry(AuthorityRepository authorityRepository) {
+        this.authorityRepository = authorityRepository;
+    }
+
+    /**
+     * Get the names of the authorities.
+     *
+     * @return the names of the authorities, in order.
+     */
+    public List<String> getNames() {
+        return snapshot().names;
+    }
+
+    /**
+     * Check if an authority is stored in the database.
+     *
+     * @param name the name of the authority.
+     * @return true if the authority is stored in the database.
+     */
+    public boolean contains(String name) {
+        return snapshot().indexesByName.containsKey(name);
+    }
+
+    /**
+     * Get a reference to an authority, to link it to a user without loading the authority.
+     * <p>
+     * The reference is a new detached instance holding only the name, which is all the join table needs. Unlike a proxy from
+     * {@code EntityManager.getReference}, hashing it in the authorities of a user doesn't load it.
+     *
+     * @param name the name of the authority.
+     * @return a new detached instance, or empty if the authority is not stored in the database.
+     */
+    public Optional<Authority> getReference(String name) {
+        if (!contains(name)) {
+            return Optional.empty();
+        }
+        Authority authority = new Authority();
+        authority.setName(name);
+        return Optional.of(authority);
+    }
+
+    /**
+     * Get the shared instance of an authority.
+     *
+     * @param name the name of the authority.
+     * @return the shared instance, or a new instance if the authority is not stored in the database.
+     */
+    public GrantedAuthority getAuthority(String name) {
+        GrantedAuthority authority = snapshot().authoritiesByName.get(name);
+        return authority != null ? authority : new SimpleGrantedAuthority(name);
+    }
+
+    /**
+     * Encode a set of authorities as a bitmask.
+     *
+     * @param authorities the authorities.
+     * @return the bitmask, or empty if one of the authorities is not stored in the database.
+     */
+    public Optional<CompactAuthorities> encode(Collection<? extends GrantedAuthority> authorities) {
+        Snapshot snapshot = snapshot();
+        long[] words = new long[Math.max(1, (snapshot.authorities.length + Long.SIZE - 1) / Long.SIZE)];
+        for (GrantedAuthority authority : authorities) {
+            Integer index = snapshot.indexesByName.get(authority.getAuthority());
+            if (index == null) {
+                return Optional.empty();
+            }
+            words[index / Long.SIZE] |= 1L << index;
+        }
+        return Optional.of(new CompactAuthorities(snapshot.version, words));
+    }
+
+    /**
+     * Decode a bitmask returned by {@link #encode(Collection)} into the shared instances of its authorities.
+     *
+     * @param version the version of the bitmask.
+     * @param words the words of the bitmask, as {@link Number}s.
+     * @return the authorities, or empty if the version is not known or the bitmask does not match it.
+     */
+    public Optional<List<GrantedAuthority>> decode(int version, List<?> words) {
+        Snapshot snapshot = findSnapshot(version);
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+        if (words.size() == 1) {
+            long mask = ((Number) words.get(0)).longValue();
+            List<GrantedAuthority> authorities = snapshot.decodedMasks.get(mask);
+            if (authorities == null) {
+                authorities = snapshot.decode(new long[] { mask });
+                if (authorities != null && snapshot.decodedMasks.size() < MAXIMUM_DECODED_MASKS) {
+                    snapshot.decodedMasks.putIfAbsent(mask, authorities);
+                }
+            }
+            return Optional.ofNullable(authorities);
+        }
+        long[] masks = new long[words.size()];
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = ((Number) words.get(i)).longValue();
+        }
+        return Optional.ofNullable(snapshot.decode(masks));
+    }
+
+    /**
+     * Reload the authorities, so that a change of the authorities is picked up by all the instances of the application.
+     */
+    @Scheduled(fixedDelay = 600_000, initialDelay = 600_000)
+    public void refresh() {
+        reload();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    private Snapshot findSnapshot(int version) {
+        Snapshot snapshot = snapshot();
+        if (snapshot.version == version) {
+            return snapshot;
+        }
+        Snapshot previousSnapshot = previous;
+        if (previousSnapshot != null && previousSnapshot.version == version) {
+            return previousSnapshot;
+        }
+        if (System.nanoTime() - lastReloadNanos < RELOAD_INTERVAL_NANOS) {
+            return null;
+        }
+        snapshot = reload();
+        return snapshot.version == version ? snapshot : null;
+    }
+
+    private synchronized Snapshot reload() {
+        List<String> names = new ArrayList<>();
+        for (Authority authority : authorityRepository.findAll(Sort.by("name"))) {
+            names.add(authority.getName());
+        }
+        Snapshot loaded = new Snapshot(names);
+        Snapshot snapshot = current;
+        if (snapshot == null || snapshot.version != loaded.version) {
+            log.debug("Loaded {} authorities, version {}", names.size(), loaded.version);
+            previous = snapshot;
+            current = loaded;
+            snapshot = loaded;
+        }
+        lastReloadNanos = System.nanoTime();
+        return snapshot;
+    }
+
+    /**
+     * A set of authorities encoded as a bitmask, with the version of the indexes of the authorities.
+     */
+    public static final class CompactAuthorities {
+
+        private final int version;
+
+        private final long[] words;
+
+        private CompactAuthorities(int version, long[] words) {
+            this.version = version;
+            this.words = words;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public long[] getWords() {
+            return words;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final int version;
+
+        private final List<String> names;
+
+        private final GrantedAuthority[] authorities;
+
+        private final Map<String, Integer> indexesByName = new HashMap<>();
+
+        private final Map<String, GrantedAuthority> authoritiesByName = new HashMap<>();
+
+        private final Map<Long, List<GrantedAuthority>> decodedMasks = new ConcurrentHashMap<>();
+
+        private Snapshot(List<String> names) {
+            this.names = Collections.unmodifiableList(names);
+            CRC32 crc = new CRC32();
+            authorities = new GrantedAuthority[names.size()];
+            for (int index = 0; index < names.size(); index++) {
+                String name = names.get(index);
+                crc.update(name.getBytes(StandardCharsets.UTF_8));
+                crc.update(',');
+                authorities[index] = new SimpleGrantedAuthority(name);
+                indexesByName.put(name, index);
+                authoritiesByName.put(name, authorities[index]);
+            }
+            version = (int) crc.getValue();
+        }
+
+        /**
+         * @return the authorities of the bitmask, or null if it has bits past the last authority.
+         */
+        private List<GrantedAuthority> decode(long[] words) {
+            List<GrantedAuthority> decoded = new ArrayList<>();
+            for (int wordIndex = 0; wordIndex < words.length; wordIndex++) {
+                long word = words[wordIndex];
+                while (word != 0) {
+                    int index = wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+                    if (index >= authorities.length) {
+                        return null;
+                    }
+                    decoded.add(authorities[index]);
+                    word &= word - 1;
+                }
+            }
+            return Collections.unmodifiableList(decoded);
+        }
+    }
+}
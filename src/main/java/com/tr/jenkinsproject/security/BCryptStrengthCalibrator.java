@@ -0,0 +1,55 @@
+package com.tr.jenkinsproject.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Utility class picking the BCrypt strength that fits a latency budget on the current host.
+ * <p>
+ * Each step of strength doubles the hashing time, so a single timed hash at the minimum strength is enough to estimate
+ * the time of the stronger ones.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+
+    public static final int MAXIMUM_STRENGTH = 16;
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private BCryptStrengthCalibrator() {}
+
+    /**
+     * Pick the highest strength whose hashing time fits the budget.
+     *
+     * @param budgetMillis the hashing time budget, {@code 0} or less to skip the calibration.
+     * @param minimumStrength the strength to use if even this one does not fit the budget.
+     * @return the strength, between {@code minimumStrength} and {@link #MAXIMUM_STRENGTH}.
+     */
+    public static int calibrate(long budgetMillis, int minimumStrength) {
+        if (budgetMillis <= 0) {
+            return minimumStrength;
+        }
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minimumStrength);
+        // the first hash is slower, while the code is not compiled yet
+        encoder.encode(CALIBRATION_PASSWORD);
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        double hashMillis = (System.nanoTime() - start) / 1_000_000d;
+
+        int strength = minimumStrength;
+        double estimatedMillis = hashMillis;
+        while (strength < MAXIMUM_STRENGTH && estimatedMillis * 2 <= budgetMillis) {
+            strength++;
+            estimatedMillis *= 2;
+        }
+        log.info(
+            "Using BCrypt strength {}, estimated at {} ms per hash for a budget of {} ms",
+            strength,
+            Math.round(estimatedMillis),
+            budgetMillis
+        );
+        return strength;
+    }
+}
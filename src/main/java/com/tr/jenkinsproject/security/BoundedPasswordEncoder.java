@@ -0,0 +1,158 @@
+package com.tr.jenkinsproject.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} running the hashing and matching of its delegate on a dedicated, bounded pool.
+ * <p>
+ * Password hashing is deliberately slow, so a burst of logins would otherwise keep every servlet thread busy hashing.
+ * Here at most {@code poolSize} passwords are hashed at once and at most {@code queueCapacity} wait for their turn, the
+ * callers beyond that get a {@link PasswordHashingUnavailableException} at once, answered with a
+ * {@code 503 (Service Unavailable)}, and the other requests keep their threads.
+ * <p>
+ * Many passwords can be hashed at once with {@link #encodeAll(List, int)}, on the same pool, so that a bulk creation of
+ * users neither starts threads of its own nor takes the whole pool from the logins.
+ * <p>
+ * The pool is published to Micrometer as the {@code passwordHashing} executor, with its queue depth, and the rejected
+ * calls are counted by the {@code password.hashing.rejected} counter.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long retryAfterSeconds;
+
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(
+        PasswordEncoder delegate,
+        int poolSize,
+        int queueCapacity,
+        long retryAfterSeconds,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.executor =
+            new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejected = meterRegistry.counter("password.hashing.rejected");
+        new ExecutorServiceMetrics(executor, "passwordHashing", Collections.emptyList()).bindTo(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash many passwords, with at most {@code parallelism} of them in the pool at once.
+     * <p>
+     * The calling thread submits the passwords one by one, and waits for the oldest one submitted when {@code parallelism}
+     * of them are in the pool or when the pool is full, so no other thread is held while waiting. The hashing is all or
+     * nothing: if a password can't be hashed, the passwords still in the pool are cancelled and the exception is thrown.
+     *
+     * @param rawPasswords the passwords to hash.
+     * @param parallelism the maximum number of these passwords in the pool at once.
+     * @return the hashes, in the order of the passwords.
+     * @throws PasswordHashingUnavailableException if the pool is full of other hashes while none of these passwords is in it.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords, int parallelism) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        Deque<Future<String>> inProgress = new ArrayDeque<>();
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                Future<String> future = null;
+                while (future == null) {
+                    if (inProgress.size() >= Math.max(1, parallelism)) {
+                        hashes.add(await(inProgress.poll()));
+                        continue;
+                    }
+                    try {
+                        future = executor.submit(() -> delegate.encode(rawPassword));
+                    } catch (RejectedExecutionException e) {
+                        if (inProgress.isEmpty()) {
+                            rejected.increment();
+                            throw new PasswordHashingUnavailableException(retryAfterSeconds, e);
+                        }
+                        hashes.add(await(inProgress.poll()));
+                    }
+                }
+                inProgress.add(future);
+            }
+            while (!inProgress.isEmpty()) {
+                hashes.add(await(inProgress.poll()));
+            }
+            return hashes;
+        } finally {
+            inProgress.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException(retryAfterSeconds, e);
+        }
+        return await(future);
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException(retryAfterSeconds, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -10,23 +10,29 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, and re-encode its password when the encoding is outdated.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
+
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserDetailsCache userDetailsCache;
+
+    public DomainUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -34,21 +40,46 @@ public class DomainUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
-            return userRepository
-                .findOneWithAuthoritiesByEmailIgnoreCase(login)
-                .map(user -> createSpringSecurityUser(login, user))
-                .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
+        if (EMAIL_VALIDATOR.isValid(login, null)) {
+            return userDetailsCache
+                .getByEmail(login.toLowerCase(Locale.ENGLISH))
+                .orElseGet(() ->
+                    userRepository
+                        .findOneWithAuthoritiesByEmailIgnoreCase(login)
+                        .map(user -> createSpringSecurityUser(login, user))
+                        .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"))
+                );
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return userRepository
-            .findOneWithAuthoritiesByLogin(lowercaseLogin)
-            .map(user -> createSpringSecurityUser(lowercaseLogin, user))
-            .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
+        return userDetailsCache
+            .getByLogin(lowercaseLogin)
+            .orElseGet(() ->
+                userRepository
+                    .findOneWithAuthoritiesByLogin(lowercaseLogin)
+                    .map(user -> createSpringSecurityUser(lowercaseLogin, user))
+                    .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"))
+            );
+    }
+
+    /**
+     * Called on a successful login when the stored hash is weaker than the current encoding, with the password
+     * encoded again.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        log.debug("Re-encoding the password of User: {}", userDetails.getUsername());
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                user.setPassword(newEncodedPassword);
+                userDetailsCache.evict(user);
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newEncodedPassword).build();
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
+    private UserDetails createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
@@ -57,6 +88,12 @@ public class DomainUserDetailsService implements UserDetailsService {
             .stream()
             .map(authority -> new SimpleGrantedAuthority(authority.getName()))
             .collect(Collectors.toList());
-        return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
+        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
+            user.getLogin(),
+            user.getPassword(),
+            grantedAuthorities
+        );
+        userDetailsCache.put(user, userDetails);
+        return userDetails;
     }
 }
@@ -0,0 +1,25 @@
+package com.tr.jenkinsproject.security;
+
+/**
+ * This exception is thrown when a password cannot be hashed or matched because the password hashing pool is saturated.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingUnavailableException(long retryAfterSeconds) {
+        super("Password hashing is saturated, retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public PasswordHashingUnavailableException(long retryAfterSeconds, Throwable t) {
+        super("Password hashing is saturated, retry later", t);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,20 @@
+package com.tr.jenkinsproject.security;
+
+/**
+ * This exception is thrown when a client or a login sends more requests than its rate limit allows.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests, retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,48 @@
+package com.tr.jenkinsproject.security;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.GenericFilterBean;
+
+/**
+ * Filters the requests to the rate limited paths, answering {@code 429 (Too Many Requests)} with a {@code Retry-After}
+ * header once the client has used up its bucket.
+ * <p>
+ * The client is identified by its remote address, set from the {@code X-Forwarded-For} header by the server when
+ * {@code server.forward-headers-strategy} is configured behind a proxy.
+ */
+public class RateLimitFilter extends GenericFilterBean {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+        throws IOException, ServletException {
+        HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
+        long waitNanos = rateLimiter.tryAcquireForClient(path(httpServletRequest), httpServletRequest.getRemoteAddr());
+        if (waitNanos > 0) {
+            HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
+            httpServletResponse.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimiter.retryAfterSeconds(waitNanos)));
+            httpServletResponse.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+
+    private String path(HttpServletRequest request) {
+        String contextPath = request.getContextPath();
+        String requestUri = request.getRequestURI();
+        return contextPath.isEmpty() ? requestUri : requestUri.substring(contextPath.length());
+    }
+}
@@ -0,0 +1,177 @@
+package com.tr.jenkinsproject.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tr.jenkinsproject.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token buckets limiting the rate of the unauthenticated endpoints, per client address on each limited path, and per
+ * login and client address across them.
+ * <p>
+ * The login buckets are keyed on the client address too, so that nobody knowing a login can exhaust the bucket used
+ * by the user from their own address, and they are only charged for failed authentications: the users never spend
+ * their own tokens by logging in.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again, the generic cell rate
+ * algorithm, updated with a compare-and-set: taking a token never locks, and allocates nothing once the bucket of the
+ * key exists. The buckets are held in bounded caches, a bucket idle for a whole refill period is full anyway, so it is
+ * evicted without changing any limit. The login buckets are held by client address, then by login, so that they are
+ * looked up without building a composite key. Rejections are counted by the {@code rate.limit.rejected} counter, tagged
+ * with the limited path or {@code login}.
+ */
+@Component
+public class RateLimiter {
+
+    /**
+     * Number of login buckets of a client above which its full buckets are dropped before adding another one.
+     */
+    private static final int MAX_LOGINS_PER_CLIENT = 64;
+
+    private static final Function<String, AtomicLong> NEW_BUCKET = key -> new AtomicLong(System.nanoTime());
+
+    private static final Function<String, ConcurrentMap<String, AtomicLong>> NEW_LOGIN_BUCKETS = key -> new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    private final Map<String, Limit<AtomicLong>> pathLimits = new HashMap<>();
+
+    private final Limit<ConcurrentMap<String, AtomicLong>> loginLimit;
+
+    public RateLimiter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.RateLimit rateLimit = applicationProperties.getSecurity().getRateLimit();
+        this.enabled = rateLimit.isEnabled();
+        for (String path : rateLimit.getPaths()) {
+            pathLimits.put(path, new Limit<>(rateLimit.getPerClient(), rateLimit.getMaxTrackedKeys(), path, meterRegistry));
+        }
+        this.loginLimit = new Limit<>(rateLimit.getPerLogin(), rateLimit.getMaxTrackedKeys(), "login", meterRegistry);
+    }
+
+    /**
+     * Take a token from the bucket of a client on a path.
+     *
+     * @param path the request path, without the context path.
+     * @param clientAddress the address of the client.
+     * @return {@code 0} if the request is allowed or the path is not limited, otherwise the nanoseconds to wait for a
+     * token.
+     */
+    public long tryAcquireForClient(String path, String clientAddress) {
+        if (!enabled) {
+            return 0;
+        }
+        Limit<AtomicLong> limit = pathLimits.get(path);
+        return limit != null ? limit.tryAcquire(limit.entries.get(clientAddress, NEW_BUCKET)) : 0;
+    }
+
+    /**
+     * Check that the bucket of a login, or email, for a client has a token left, without taking it.
+     *
+     * @param login the login, already lowercased.
+     * @param clientAddress the address of the client.
+     * @throws RateLimitExceededException if the bucket of the login is empty.
+     */
+    public void checkLogin(String login, String clientAddress) {
+        if (!enabled || login == null) {
+            return;
+        }
+        Map<String, AtomicLong> buckets = loginLimit.entries.getIfPresent(clientAddress);
+        long waitNanos = buckets != null ? loginLimit.check(buckets.get(login)) : 0;
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(retryAfterSeconds(waitNanos));
+        }
+    }
+
+    /**
+     * Take a token from the bucket of a login, or email, for a client.
+     *
+     * @param login the login, already lowercased.
+     * @param clientAddress the address of the client.
+     * @throws RateLimitExceededException if the bucket of the login is empty.
+     */
+    public void acquireForLogin(String login, String clientAddress) {
+        if (!enabled || login == null) {
+            return;
+        }
+        long waitNanos = loginLimit.tryAcquire(loginBucket(loginLimit.entries.get(clientAddress, NEW_LOGIN_BUCKETS), login));
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(retryAfterSeconds(waitNanos));
+        }
+    }
+
+    private static AtomicLong loginBucket(ConcurrentMap<String, AtomicLong> buckets, String login) {
+        AtomicLong fullAt = buckets.get(login);
+        if (fullAt != null) {
+            return fullAt;
+        }
+        if (buckets.size() >= MAX_LOGINS_PER_CLIENT) {
+            // a full bucket is the same as no bucket, a token taken concurrently from a dropped one is at worst lost
+            long now = System.nanoTime();
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+        return buckets.computeIfAbsent(login, NEW_BUCKET);
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static final class Limit<V> {
+
+        private final Cache<String, V> entries;
+
+        private final long emissionIntervalNanos;
+
+        private final long burstNanos;
+
+        private final Counter rejected;
+
+        private Limit(ApplicationProperties.Security.RateLimit.Bucket bucket, long maxTrackedKeys, String name, MeterRegistry registry) {
+            long refillPeriodNanos = TimeUnit.SECONDS.toNanos(bucket.getRefillPeriodSeconds());
+            this.emissionIntervalNanos = refillPeriodNanos / bucket.getCapacity();
+            this.burstNanos = emissionIntervalNanos * bucket.getCapacity();
+            this.entries =
+                Caffeine.newBuilder().maximumSize(maxTrackedKeys).expireAfterAccess(refillPeriodNanos, TimeUnit.NANOSECONDS).build();
+            this.rejected = Counter.builder("rate.limit.rejected").tag("limit", name).register(registry);
+        }
+
+        private long check(AtomicLong fullAt) {
+            if (fullAt == null) {
+                return 0;
+            }
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long waitNanos = (current - now > 0 ? current : now) + emissionIntervalNanos - now - burstNanos;
+            if (waitNanos > 0) {
+                rejected.increment();
+                return waitNanos;
+            }
+            return 0;
+        }
+
+        private long tryAcquire(AtomicLong fullAt) {
+            long now = System.nanoTime();
+            while (true) {
+                long current = fullAt.get();
+                // an empty bucket is full at now + burst, taking a token moves that time one interval later
+                long next = (current - now > 0 ? current : now) + emissionIntervalNanos;
+                long waitNanos = next - now - burstNanos;
+                if (waitNanos > 0) {
+                    rejected.increment();
+                    return waitNanos;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.tr.jenkinsproject.security;
+
+import com.tr.jenkinsproject.domain.User;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of the {@link UserDetails} loaded by {@link DomainUserDetailsService}, keyed by lowercase login and by
+ * lowercase email.
+ * <p>
+ * The caches are bounded and expire their entries, see {@code com.tr.jenkinsproject.config.CacheConfiguration}, and
+ * their hit rates are exported with the other {@code cache.*} metrics. Only activated users are cached, and callers
+ * always get a copy, as Spring Security erases the password of the {@link UserDetails} it authenticated.
+ * <p>
+ * The caches are local to each instance, and {@link #evict(User)} only evicts from the instance changing the user. The
+ * other instances of the cluster see a change of password, activation or authorities when their entry expires, so the
+ * entries only live for seconds: long enough to absorb a burst of logins, short enough to bound that staleness.
+ */
+@Component
+public class UserDetailsCache {
+
+    public static final String USER_DETAILS_BY_LOGIN_CACHE = "userDetailsByLogin";
+
+    public static final String USER_DETAILS_BY_EMAIL_CACHE = "userDetailsByEmail";
+
+    private final Cache byLogin;
+
+    private final Cache byEmail;
+
+    public UserDetailsCache(CacheManager cacheManager) {
+        this.byLogin = Objects.requireNonNull(cacheManager.getCache(USER_DETAILS_BY_LOGIN_CACHE));
+        this.byEmail = Objects.requireNonNull(cacheManager.getCache(USER_DETAILS_BY_EMAIL_CACHE));
+    }
+
+    public Optional<UserDetails> getByLogin(String lowercaseLogin) {
+        return get(byLogin, lowercaseLogin);
+    }
+
+    public Optional<UserDetails> getByEmail(String lowercaseEmail) {
+        return get(byEmail, lowercaseEmail);
+    }
+
+    public void put(User user, UserDetails userDetails) {
+        UserDetails snapshot = copy(userDetails);
+        byLogin.put(user.getLogin(), snapshot);
+        if (user.getEmail() != null) {
+            byEmail.put(user.getEmail().toLowerCase(Locale.ENGLISH), snapshot);
+        }
+    }
+
+    /**
+     * Evict a user, with its current login and email, now and again when the current transaction commits, so that a
+     * login running concurrently cannot cache the user as it was before the transaction.
+     *
+     * @param user the user.
+     */
+    public void evict(User user) {
+        String login = user.getLogin();
+        String email = user.getEmail() != null ? user.getEmail().toLowerCase(Locale.ENGLISH) : null;
+        evict(login, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evict(login, email);
+                    }
+                }
+            );
+        }
+    }
+
+    private void evict(String login, String email) {
+        if (login != null) {
+            byLogin.evict(login);
+        }
+        if (email != null) {
+            byEmail.evict(email);
+        }
+    }
+
+    private static Optional<UserDetails> get(Cache cache, String key) {
+        return Optional.ofNullable(cache.get(key, UserDetails.class)).map(UserDetailsCache::copy);
+    }
+
+    private static UserDetails copy(UserDetails userDetails) {
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).build();
+    }
+}
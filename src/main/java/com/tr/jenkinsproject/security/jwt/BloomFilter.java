@@ -0,0 +1,75 @@
+package com.tr.jenkinsproject.security.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings.
+ * <p>
+ * {@link #mightContain(String)} never returns {@code false} for a value that was added, and returns {@code true} for a
+ * value that was not added with about the false positive probability given at construction, as long as no more than
+ * the expected number of values are added.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(hash1 + i * hash2);
+            words.getAndAccumulate((int) (bit >>> 6), 1L << bit, BloomFilter::or);
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(hash1 + i * hash2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(int combinedHash) {
+        return (combinedHash & 0xFFFFFFFFL) % bitCount;
+    }
+
+    private static long or(long word, long mask) {
+        return word | mask;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the characters, followed by the MurmurHash3 finalizer to spread the bits.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,130 @@
+package com.tr.jenkinsproject.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of the {@link Authentication} of the JWT tokens already verified.
+ * <p>
+ * A token is verified and its claims are parsed on its first use only, later requests with the same token get the
+ * cached authentication after a single digest and lookup. Tokens are keyed by their SHA-256 digest, and each entry
+ * expires with its token, so an expired token is never accepted from the cache. Cached tokens are still checked
+ * against the {@link TokenRevocationList} on every use.
+ */
+@Component
+public class JWTAuthenticationCache {
+
+    static final long MAXIMUM_SIZE = 10_000;
+
+    private final TokenProvider tokenProvider;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    private final Cache<String, CachedAuthentication> cache;
+
+    public JWTAuthenticationCache(TokenProvider tokenProvider, TokenRevocationList tokenRevocationList, MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.tokenRevocationList = tokenRevocationList;
+        this.cache = Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).expireAfter(new TokenExpiry()).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtAuthentication");
+    }
+
+    /**
+     * Get the authentication of a token, verifying the token if it is not cached yet.
+     *
+     * @param token the token.
+     * @return the authentication, or empty if the token is not valid or is revoked.
+     */
+    public Optional<Authentication> getAuthentication(String token) {
+        CachedAuthentication cached = cache.get(digest(token), key -> verify(token));
+        if (cached == null || tokenRevocationList.isRevoked(cached.tokenId)) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.authentication);
+    }
+
+    /**
+     * Remove a token from the cache, so that it is verified again on its next use.
+     *
+     * @param token the token.
+     */
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    private CachedAuthentication verify(String token) {
+        try {
+            return tokenProvider
+                .verifyToken(token)
+                .map(
+                    claims -> new CachedAuthentication(tokenProvider.getAuthentication(claims, token), claims.getId(), expirationOf(claims))
+                )
+                .orElse(null);
+        } catch (JwtException e) {
+            return null;
+        }
+    }
+
+    private static long expirationOf(Claims claims) {
+        return claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class CachedAuthentication {
+
+        private final Authentication authentication;
+
+        private final String tokenId;
+
+        private final long expirationMillis;
+
+        private CachedAuthentication(Authentication authentication, String tokenId, long expirationMillis) {
+            this.authentication = authentication;
+            this.tokenId = tokenId;
+            this.expirationMillis = expirationMillis;
+        }
+    }
+
+    /**
+     * Expires each entry at the expiration time of its token.
+     */
+    private static final class TokenExpiry implements Expiry<String, CachedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+            long remainingMillis = value.expirationMillis - System.currentTimeMillis();
+            return remainingMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(remainingMillis) : 0;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.tr.jenkinsproject.security.jwt;
+
+import com.tr.jenkinsproject.config.ApplicationProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.SignatureException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.*;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * The ES256 key pairs the access tokens are signed and verified with.
+ * <p>
+ * The tokens carry the id of their key in the {@code kid} header, so that the key verifying them is a single lookup, and so
+ * that the tokens signed with a previous key stay valid after a rotation as long as its public key is configured.
+ * <p>
+ * The key pairs must be configured, so that all the instances of the cluster sign with the same key and publish the same
+ * keys: a key pair generated by an instance would make its tokens invalid on the other ones.
+ */
+class JwtSigningKeys extends SigningKeyResolverAdapter {
+
+    /**
+     * Length of the coordinates of a P-256 point, in bytes.
+     */
+    private static final int COORDINATE_LENGTH = 32;
+
+    private final String currentKeyId;
+
+    private final PrivateKey currentKey;
+
+    private final Map<String, ECPublicKey> publicKeys;
+
+    private final List<Map<String, Object>> jsonWebKeys;
+
+    private JwtSigningKeys(String currentKeyId, PrivateKey currentKey, Map<String, ECPublicKey> publicKeys) {
+        this.currentKeyId = currentKeyId;
+        this.currentKey = currentKey;
+        this.publicKeys = publicKeys;
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        publicKeys.forEach((keyId, publicKey) -> jwks.add(toJsonWebKey(keyId, publicKey)));
+        this.jsonWebKeys = Collections.unmodifiableList(jwks);
+    }
+
+    static JwtSigningKeys of(List<ApplicationProperties.Security.Jwt.SigningKey> signingKeys) {
+        if (signingKeys.isEmpty()) {
+            throw new IllegalStateException("The ES256 algorithm needs the `application.security.jwt.keys` to be set");
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            Map<String, ECPublicKey> publicKeys = new LinkedHashMap<>();
+            for (ApplicationProperties.Security.Jwt.SigningKey signingKey : signingKeys) {
+                if (ObjectUtils.isEmpty(signingKey.getId()) || publicKeys.containsKey(signingKey.getId())) {
+                    throw new IllegalStateException("Each of the `application.security.jwt.keys` needs a distinct id");
+                }
+                publicKeys.put(
+                    signingKey.getId(),
+                    (ECPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(Decoders.BASE64.decode(signingKey.getPublicKey())))
+                );
+            }
+            ApplicationProperties.Security.Jwt.SigningKey current = signingKeys.get(0);
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Decoders.BASE64.decode(current.getPrivateKey())));
+            if (!isKeyPair(privateKey, publicKeys.get(current.getId()))) {
+                throw new IllegalStateException(
+                    "The private key of the `application.security.jwt.keys` " + current.getId() + " does not match its public key"
+                );
+            }
+            return new JwtSigningKeys(current.getId(), privateKey, Collections.unmodifiableMap(publicKeys));
+        } catch (GeneralSecurityException | IllegalArgumentException | ClassCastException e) {
+            throw new IllegalStateException("Invalid `application.security.jwt.keys`", e);
+        }
+    }
+
+    /**
+     * Check that a public key verifies what a private key signs.
+     */
+    private static boolean isKeyPair(PrivateKey privateKey, PublicKey publicKey) throws GeneralSecurityException {
+        byte[] challenge = "jwt-signing-key".getBytes(StandardCharsets.US_ASCII);
+        Signature signature = Signature.getInstance(SignatureAlgorithm.ES256.getJcaName());
+        signature.initSign(privateKey);
+        signature.update(challenge);
+        byte[] signed = signature.sign();
+        signature.initVerify(publicKey);
+        signature.update(challenge);
+        return signature.verify(signed);
+    }
+
+    String getCurrentKeyId() {
+        return currentKeyId;
+    }
+
+    PrivateKey getCurrentKey() {
+        return currentKey;
+    }
+
+    List<Map<String, Object>> getJsonWebKeys() {
+        return jsonWebKeys;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String keyId = header.getKeyId();
+        ECPublicKey publicKey = keyId == null ? null : publicKeys.get(keyId);
+        if (publicKey == null) {
+            throw new SignatureException("Unknown JWT signing key");
+        }
+        return publicKey;
+    }
+
+    /**
+     * Represent a public key as a JSON Web Key, see RFC 7517 and RFC 7518 section 6.2.
+     */
+    private static Map<String, Object> toJsonWebKey(String keyId, ECPublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", keyId);
+        jwk.put("use", "sig");
+        jwk.put("alg", "ES256");
+        jwk.put("x", Encoders.BASE64URL.encode(toUnsignedBytes(publicKey.getW().getAffineX().toByteArray())));
+        jwk.put("y", Encoders.BASE64URL.encode(toUnsignedBytes(publicKey.getW().getAffineY().toByteArray())));
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    /**
+     * Strip the sign byte of a coordinate, or left-pad it with zeros, to its fixed length.
+     */
+    private static byte[] toUnsignedBytes(byte[] coordinate) {
+        byte[] bytes = new byte[COORDINATE_LENGTH];
+        int length = Math.min(coordinate.length, COORDINATE_LENGTH);
+        System.arraycopy(coordinate, coordinate.length - length, bytes, COORDINATE_LENGTH - length, length);
+        return bytes;
+    }
+}
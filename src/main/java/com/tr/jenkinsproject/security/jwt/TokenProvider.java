@@ -1,5 +1,7 @@
 package com.tr.jenkinsproject.security.jwt;
 
+import com.tr.jenkinsproject.config.ApplicationProperties;
+import com.tr.jenkinsproject.security.AuthorityRegistry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -12,7 +14,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
@@ -25,15 +26,51 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final String AUTHORITIES_VERSION_KEY = "authv";
+
+    private static final String AUTHORITIES_MASK_KEY = "authm";
+
     private final Key key;
 
+    private final SignatureAlgorithm signatureAlgorithm;
+
+    /**
+     * The ES256 keys, or null when the tokens are signed with the HS512 secret.
+     */
+    private final JwtSigningKeys signingKeys;
+
     private final JwtParser jwtParser;
 
+    private final AuthorityRegistry authorityRegistry;
+
+    private final boolean compactAuthorities;
+
     private final long tokenValidityInMilliseconds;
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        AuthorityRegistry authorityRegistry
+    ) {
+        this.authorityRegistry = authorityRegistry;
+        this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
+        this.tokenValidityInMillisecondsForRememberMe =
+            1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+        ApplicationProperties.Security.Jwt jwt = applicationProperties.getSecurity().getJwt();
+        this.compactAuthorities = jwt.isCompactAuthorities();
+        signatureAlgorithm = SignatureAlgorithm.forName(jwt.getAlgorithm());
+        if (signatureAlgorithm == SignatureAlgorithm.ES256) {
+            signingKeys = JwtSigningKeys.of(jwt.getKeys());
+            key = signingKeys.getCurrentKey();
+            jwtParser = Jwts.parserBuilder().setSigningKeyResolver(signingKeys).build();
+            return;
+        }
+        if (signatureAlgorithm != SignatureAlgorithm.HS512) {
+            throw new IllegalStateException("Unsupported JWT algorithm " + signatureAlgorithm + ", use HS512 or ES256");
+        }
+        signingKeys = null;
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -49,14 +86,9 @@ public class TokenProvider {
         }
         key = Keys.hmacShaKeyFor(keyBytes);
         jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
-        this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
-        this.tokenValidityInMillisecondsForRememberMe =
-            1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
-        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
-
         long now = (new Date()).getTime();
         Date validity;
         if (rememberMe) {
@@ -65,23 +97,69 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts
-            .builder()
+        JwtBuilder builder = Jwts.builder();
+        if (signingKeys != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKeys.getCurrentKeyId());
+        }
+        Optional<AuthorityRegistry.CompactAuthorities> compact = compactAuthorities
+            ? authorityRegistry.encode(authentication.getAuthorities())
+            : Optional.empty();
+        if (compact.isPresent()) {
+            builder.claim(AUTHORITIES_VERSION_KEY, compact.get().getVersion()).claim(AUTHORITIES_MASK_KEY, compact.get().getWords());
+        } else {
+            String authorities = authentication
+                .getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+            builder.claim(AUTHORITIES_KEY, authorities);
+        }
+        return builder
+            .setId(UUID.randomUUID().toString())
             .setSubject(authentication.getName())
-            .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
+            .signWith(key, signatureAlgorithm)
             .setExpiration(validity)
             .compact();
     }
 
+    /**
+     * Get the public keys the tokens can be verified with, as JSON Web Keys.
+     *
+     * @return the public keys, empty when the tokens are signed with a shared secret.
+     */
+    public List<Map<String, Object>> getJsonWebKeys() {
+        return signingKeys == null ? Collections.emptyList() : signingKeys.getJsonWebKeys();
+    }
+
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return getAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
+    }
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+    /**
+     * Build the authentication of a token from its already verified claims.
+     *
+     * @param claims the claims returned by {@link #verifyToken(String)}.
+     * @param token the token.
+     * @return the authentication.
+     * @throws MalformedJwtException if the authorities of the token are encoded with an unknown version of the authorities.
+     */
+    public Authentication getAuthentication(Claims claims, String token) {
+        Collection<? extends GrantedAuthority> authorities;
+        Object mask = claims.get(AUTHORITIES_MASK_KEY);
+        Integer version = claims.get(AUTHORITIES_VERSION_KEY, Integer.class);
+        if (mask instanceof List && version != null) {
+            authorities =
+                authorityRegistry
+                    .decode(version, (List<?>) mask)
+                    .orElseThrow(() -> new MalformedJwtException("Unknown authorities of the JWT token"));
+        } else {
+            authorities =
+                Arrays
+                    .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+                    .filter(auth -> !auth.trim().isEmpty())
+                    .map(authorityRegistry::getAuthority)
+                    .collect(Collectors.toList());
+        }
 
         User principal = new User(claims.getSubject(), "", authorities);
 
@@ -89,13 +167,22 @@ public class TokenProvider {
     }
 
     public boolean validateToken(String authToken) {
+        return verifyToken(authToken).isPresent();
+    }
+
+    /**
+     * Verify the signature and expiration of a token, and parse its claims, in a single pass.
+     *
+     * @param authToken the token.
+     * @return the claims of the token, or empty if the token is not valid.
+     */
+    public Optional<Claims> verifyToken(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
-            return true;
+            return Optional.of(jwtParser.parseClaimsJws(authToken).getBody());
         } catch (JwtException | IllegalArgumentException e) {
             log.info("Invalid JWT token.");
             log.trace("Invalid JWT token trace.", e);
         }
-        return false;
+        return Optional.empty();
     }
 }
@@ -0,0 +1,124 @@
+package com.tr.jenkinsproject.security.jwt;
+
+import com.tr.jenkinsproject.domain.RevokedToken;
+import com.tr.jenkinsproject.repository.RevokedTokenRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * In-memory denylist of the revoked JWTs, backed by the {@link RevokedToken} table.
+ * <p>
+ * Lookups first go through a Bloom filter, so the tokens which are not revoked are almost always rejected by a few bit
+ * tests, and only its positives are confirmed against the exact set of revoked token ids. Tokens revoked by other
+ * instances are loaded incrementally, by their revocation time, every {@link #REFRESH_DELAY_MILLIS} milliseconds, and
+ * the whole list is rebuilt without the expired tokens every hour.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    static final long REFRESH_DELAY_MILLIS = 10_000;
+
+    /**
+     * Revocations are read again for this long, in case their transactions committed after the previous refresh.
+     */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private static final int MINIMUM_EXPECTED_INSERTIONS = 100_000;
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(MINIMUM_EXPECTED_INSERTIONS);
+
+    private volatile Instant lastRefresh;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    /**
+     * Check if a token is revoked.
+     *
+     * @param tokenId the {@code jti} claim of the token, tokens without one cannot be revoked.
+     * @return true if the token is revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && snapshot.contains(tokenId);
+    }
+
+    /**
+     * Revoke a token until its expiration.
+     *
+     * @param tokenId the {@code jti} claim of the token.
+     * @param expiresAt the expiration of the token.
+     */
+    @Transactional
+    public void revoke(String tokenId, Instant expiresAt) {
+        revokedTokenRepository.save(new RevokedToken().tokenId(tokenId).expiresAt(expiresAt).revokedAt(Instant.now()));
+        snapshot.add(tokenId);
+    }
+
+    /**
+     * Load the tokens revoked since the previous refresh, or all the revoked tokens on the first refresh.
+     */
+    @Scheduled(fixedDelay = REFRESH_DELAY_MILLIS)
+    @Transactional(readOnly = true)
+    public void refresh() {
+        Instant now = Instant.now();
+        if (lastRefresh == null) {
+            List<String> tokenIds = revokedTokenRepository.findTokenIdsRevokedSince(Instant.EPOCH, now);
+            Snapshot rebuilt = new Snapshot(Math.max(MINIMUM_EXPECTED_INSERTIONS, 2 * tokenIds.size()));
+            tokenIds.forEach(rebuilt::add);
+            // revocations of this instance made while rebuilding are read again by the next refresh
+            snapshot = rebuilt;
+            log.debug("Loaded {} revoked tokens", tokenIds.size());
+        } else {
+            revokedTokenRepository.findTokenIdsRevokedSince(lastRefresh.minus(REFRESH_OVERLAP), now).forEach(snapshot::add);
+        }
+        lastRefresh = now;
+    }
+
+    /**
+     * Expired tokens are rejected by their signature check already, they are removed from the table every hour, and the
+     * list is rebuilt without them on the next refresh.
+     */
+    @Scheduled(cron = "0 0 * * * ?")
+    @Transactional
+    public void removeExpiredTokens() {
+        int removed = revokedTokenRepository.deleteExpired(Instant.now());
+        log.debug("Removed {} expired revoked tokens", removed);
+        lastRefresh = null;
+    }
+
+    private static final class Snapshot {
+
+        private final BloomFilter filter;
+
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        private Snapshot(int expectedInsertions) {
+            this.filter = new BloomFilter(expectedInsertions, FALSE_POSITIVE_PROBABILITY);
+        }
+
+        private void add(String tokenId) {
+            // the exact set first, so that a token seen by the filter is always in the set
+            tokenIds.add(tokenId);
+            filter.put(tokenId);
+        }
+
+        private boolean contains(String tokenId) {
+            return filter.mightContain(tokenId) && tokenIds.contains(tokenId);
+        }
+    }
+}
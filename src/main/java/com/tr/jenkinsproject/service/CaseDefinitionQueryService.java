@@ -0,0 +1,130 @@
+package com.tr.jenkinsproject.service;
+
+import com.tr.jenkinsproject.domain.*; // for static metamodels
+import com.tr.jenkinsproject.domain.CaseDefinition;
+import com.tr.jenkinsproject.repository.CaseDefinitionRepository;
+import com.tr.jenkinsproject.repository.SearchHit;
+import com.tr.jenkinsproject.service.criteria.CaseDefinitionCriteria;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for executing complex queries for {@link CaseDefinition} entities in the database.
+ * The main input is a {@link CaseDefinitionCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link CaseDefinition} or a {@link Page} of {@link CaseDefinition} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CaseDefinitionQueryService extends KeysetQueryService<CaseDefinition> {
+
+    private final Logger log = LoggerFactory.getLogger(CaseDefinitionQueryService.class);
+
+    private final CaseDefinitionRepository caseDefinitionRepository;
+
+    public CaseDefinitionQueryService(CaseDefinitionRepository caseDefinitionRepository, EntityManager entityManager) {
+        super(entityManager, CaseDefinition.class, CaseDefinition_.id);
+        this.caseDefinitionRepository = caseDefinitionRepository;
+    }
+
+    /**
+     * Return a {@link List} of {@link CaseDefinition} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<CaseDefinition> findByCriteria(CaseDefinitionCriteria criteria) {
+        log.debug("find by criteria : {}", criteria);
+        final Specification<CaseDefinition> specification = createSpecification(criteria);
+        return caseDefinitionRepository.findAll(specification);
+    }
+
+    /**
+     * Return a {@link Page} of {@link CaseDefinition} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<CaseDefinition> findByCriteria(CaseDefinitionCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<CaseDefinition> specification = createSpecification(criteria);
+        return caseDefinitionRepository.findAll(specification, page);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link CaseDefinition} which matches the criteria from the database, read with keyset pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param afterId The id of the last entity already read.
+     * @param size The size of the slice.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CaseDefinition> findByCriteria(CaseDefinitionCriteria criteria, long afterId, int size) {
+        log.debug("find by criteria : {}, after: {}, size: {}", criteria, afterId, size);
+        final Specification<CaseDefinition> specification = createSpecification(criteria);
+        return findSlice(specification, afterId, size);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link CaseDefinition} matching the search query from the database, best ranked first.
+     * @param query The words to search in the name and description of the entities.
+     * @param afterRank The rank of the last entity already read, or {@code null} for the first slice.
+     * @param afterId The id of the last entity already read, or {@code null} for the first slice.
+     * @param size The size of the slice.
+     * @return the matching entities with their rank.
+     */
+    @Transactional(readOnly = true)
+    public Slice<SearchHit<CaseDefinition>> search(String query, Float afterRank, Long afterId, int size) {
+        log.debug("search for query : {}, after: {}/{}, size: {}", query, afterRank, afterId, size);
+        return caseDefinitionRepository.search(query, afterRank, afterId, size);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(CaseDefinitionCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<CaseDefinition> specification = createSpecification(criteria);
+        return caseDefinitionRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link CaseDefinitionCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<CaseDefinition> createSpecification(CaseDefinitionCriteria criteria) {
+        Specification<CaseDefinition> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), CaseDefinition_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), CaseDefinition_.name));
+            }
+            if (criteria.getDescription() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getDescription(), CaseDefinition_.description));
+            }
+            if (criteria.getActive() != null) {
+                specification = specification.and(buildSpecification(criteria.getActive(), CaseDefinition_.active));
+            }
+        }
+        return specification;
+    }
+}
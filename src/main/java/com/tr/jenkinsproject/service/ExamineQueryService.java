@@ -0,0 +1,126 @@
+package com.tr.jenkinsproject.service;
+
+import com.tr.jenkinsproject.domain.*; // for static metamodels
+import com.tr.jenkinsproject.domain.Examine;
+import com.tr.jenkinsproject.repository.ExamineRepository;
+import com.tr.jenkinsproject.service.criteria.ExamineCriteria;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for executing complex queries for {@link Examine} entities in the database.
+ * The main input is a {@link ExamineCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link Examine} or a {@link Page} of {@link Examine} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExamineQueryService extends KeysetQueryService<Examine> {
+
+    private final Logger log = LoggerFactory.getLogger(ExamineQueryService.class);
+
+    private final ExamineRepository examineRepository;
+
+    public ExamineQueryService(ExamineRepository examineRepository, EntityManager entityManager) {
+        super(entityManager, Examine.class, Examine_.id);
+        this.examineRepository = examineRepository;
+    }
+
+    /**
+     * Return a {@link List} of {@link Examine} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<Examine> findByCriteria(ExamineCriteria criteria) {
+        log.debug("find by criteria : {}", criteria);
+        final Specification<Examine> specification = createSpecification(criteria);
+        return examineRepository.findAll(specification);
+    }
+
+    /**
+     * Return a {@link Page} of {@link Examine} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Examine> findByCriteria(ExamineCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<Examine> specification = createSpecification(criteria);
+        return examineRepository.findAll(specification, page);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link Examine} which matches the criteria from the database, read with keyset pagination.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param afterId The id of the last entity already read.
+     * @param size The size of the slice.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Examine> findByCriteria(ExamineCriteria criteria, long afterId, int size) {
+        log.debug("find by criteria : {}, after: {}, size: {}", criteria, afterId, size);
+        final Specification<Examine> specification = createSpecification(criteria);
+        return findSlice(specification, afterId, size);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(ExamineCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Examine> specification = createSpecification(criteria);
+        return examineRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link ExamineCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Examine> createSpecification(ExamineCriteria criteria) {
+        Specification<Examine> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Examine_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Examine_.name));
+            }
+            if (criteria.getCaseDefinitionId() != null) {
+                // the foreign key column is compared directly, without joining the case_definition table
+                specification =
+                    specification.and(
+                        buildSpecification(
+                            criteria.getCaseDefinitionId(),
+                            root -> root.get(Examine_.fk_examine__case_definition_id).get(CaseDefinition_.id)
+                        )
+                    );
+            }
+        }
+        return specification;
+    }
+
+    @Override
+    protected void fetchAssociations(Root<Examine> root) {
+        root.fetch(Examine_.fk_examine__case_definition_id, JoinType.LEFT);
+    }
+}
@@ -0,0 +1,73 @@
+package com.tr.jenkinsproject.service;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Base service for the query services which can also read their entities with keyset pagination.
+ *
+ * @param <ENTITY> the type of the entity which is queried.
+ */
+public abstract class KeysetQueryService<ENTITY> extends QueryService<ENTITY> {
+
+    private final EntityManager entityManager;
+
+    private final Class<ENTITY> domainClass;
+
+    private final SingularAttribute<? super ENTITY, Long> idAttribute;
+
+    protected KeysetQueryService(
+        EntityManager entityManager,
+        Class<ENTITY> domainClass,
+        SingularAttribute<? super ENTITY, Long> idAttribute
+    ) {
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+        this.idAttribute = idAttribute;
+    }
+
+    /**
+     * Return the entities matching the specification whose id is greater than the given one, ordered by id.
+     * <p>
+     * One more entity than the size of the slice is selected to know if there is a next slice, so no count query is run.
+     *
+     * @param specification the specification the entities must match.
+     * @param afterId the id of the last entity already read.
+     * @param size the size of the slice.
+     * @return the matching slice of entities.
+     */
+    protected Slice<ENTITY> findSlice(Specification<ENTITY> specification, long afterId, int size) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ENTITY> query = builder.createQuery(domainClass);
+        Root<ENTITY> root = query.from(domainClass);
+        fetchAssociations(root);
+        Path<Long> id = root.get(idAttribute);
+        Predicate predicate = builder.greaterThan(id, afterId);
+        Predicate filter = specification.toPredicate(root, query, builder);
+        if (filter != null) {
+            predicate = builder.and(predicate, filter);
+        }
+        query.select(root).where(predicate).orderBy(builder.asc(id));
+        List<ENTITY> content = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Fetch the associations of the entities read by {@link #findSlice}, in the same query.
+     *
+     * @param root the root of the query.
+     */
+    protected void fetchAssociations(Root<ENTITY> root) {}
+}
@@ -0,0 +1,178 @@
+package com.tr.jenkinsproject.service;
+
+import com.tr.jenkinsproject.config.ApplicationProperties;
+import com.tr.jenkinsproject.domain.Authority;
+import com.tr.jenkinsproject.domain.RefreshToken;
+import com.tr.jenkinsproject.domain.User;
+import com.tr.jenkinsproject.repository.RefreshTokenRepository;
+import com.tr.jenkinsproject.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service class for managing the refresh tokens.
+ * <p>
+ * A refresh token can be used once: each use deletes it and issues a new one, with the same expiration, so rotating
+ * tokens never extends a session beyond the validity of the first token.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTE_LENGTH = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final long tokenValidityInSeconds;
+
+    private final long tokenValidityInSecondsForRememberMe;
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.tokenValidityInSeconds = applicationProperties.getSecurity().getRefreshTokenValidityInSeconds();
+        this.tokenValidityInSecondsForRememberMe =
+            jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+    }
+
+    /**
+     * Issue a refresh token to a user who has just authenticated.
+     *
+     * @param login the login of the user.
+     * @param rememberMe whether the token is valid for the remember-me duration.
+     * @return the refresh token.
+     */
+    public String createRefreshToken(String login, boolean rememberMe) {
+        User user = userRepository.findOneByLogin(login).orElseThrow(() -> new IllegalStateException("User " + login + " not found"));
+        Instant expiresAt = Instant.now().plusSeconds(rememberMe ? tokenValidityInSecondsForRememberMe : tokenValidityInSeconds);
+        return save(user.getId(), rememberMe, expiresAt);
+    }
+
+    /**
+     * Use a refresh token: the token is deleted and a new one is issued to its user, if the user is still activated.
+     *
+     * @param refreshToken the refresh token.
+     * @return the authentication of the user and the new refresh token, or empty if the token is unknown, expired or
+     * already used.
+     */
+    public Optional<Rotation> rotate(String refreshToken) {
+        return refreshTokenRepository
+            .findOneByTokenHash(hash(refreshToken))
+            .filter(token -> token.getExpiresAt().isAfter(Instant.now()))
+            .filter(token -> refreshTokenRepository.deleteOneById(token.getId()) == 1)
+            .flatMap(token ->
+                userRepository
+                    .findOneWithAuthoritiesById(token.getUserId())
+                    .filter(User::isActivated)
+                    .map(user -> new Rotation(authentication(user), save(user.getId(), token.getRememberMe(), token.getExpiresAt())))
+            );
+    }
+
+    /**
+     * Revoke a refresh token.
+     *
+     * @param refreshToken the refresh token.
+     */
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.deleteByTokenHash(hash(refreshToken));
+    }
+
+    /**
+     * Revoke all the refresh tokens of a user, on a change of credentials.
+     *
+     * @param user the user.
+     */
+    public void revokeAll(User user) {
+        int revoked = refreshTokenRepository.deleteAllByUserId(user.getId());
+        log.debug("Revoked {} refresh tokens of User: {}", revoked, user.getLogin());
+    }
+
+    /**
+     * Expired refresh tokens are removed every hour.
+     */
+    @Scheduled(cron = "0 30 * * * ?")
+    public void removeExpiredTokens() {
+        int removed = refreshTokenRepository.deleteExpired(Instant.now());
+        log.debug("Removed {} expired refresh tokens", removed);
+    }
+
+    private String save(Long userId, boolean rememberMe, Instant expiresAt) {
+        byte[] bytes = new byte[TOKEN_BYTE_LENGTH];
+        secureRandom.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(
+            new RefreshToken().tokenHash(hash(refreshToken)).userId(userId).rememberMe(rememberMe).expiresAt(expiresAt)
+        );
+        return refreshToken;
+    }
+
+    private static Authentication authentication(User user) {
+        List<GrantedAuthority> grantedAuthorities = user
+            .getAuthorities()
+            .stream()
+            .map(Authority::getName)
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+        return new UsernamePasswordAuthenticationToken(user.getLogin(), null, grantedAuthorities);
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The result of the use of a refresh token.
+     */
+    public static final class Rotation {
+
+        private final Authentication authentication;
+
+        private final String refreshToken;
+
+        private Rotation(Authentication authentication, String refreshToken) {
+            this.authentication = authentication;
+            this.refreshToken = refreshToken;
+        }
+
+        public Authentication getAuthentication() {
+            return authentication;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
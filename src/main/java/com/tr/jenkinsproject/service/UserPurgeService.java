@@ -0,0 +1,121 @@
+package com.tr.jenkinsproject.service;
+
+import com.tr.jenkinsproject.config.ApplicationProperties;
+import com.tr.jenkinsproject.repository.SchedulerLockRepository;
+import com.tr.jenkinsproject.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service removing the users who did not activate their account in time.
+ * <p>
+ * The users are deleted by chunks of consecutive ids, each chunk in its own transaction with two set-based statements:
+ * one for their authorities and one for the users themselves, without loading them. The removal is guarded by a lock in
+ * the database, so that a single instance of the cluster runs it.
+ * <p>
+ * The {@link com.tr.jenkinsproject.security.UserDetailsCache} is not evicted: the details of a not activated user are
+ * never cached, as they fail the authentication, and a user removed here never had its account activated.
+ */
+@Service
+public class UserPurgeService {
+
+    static final String LOCK_NAME = "removeNotActivatedUsers";
+
+    /**
+     * Time the lock is held for at most, if the instance holding it dies during the removal.
+     */
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofHours(1);
+
+    /**
+     * Time the lock is held for at least, so that the instances whose clock is late don't run the removal again.
+     */
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofMinutes(5);
+
+    private final Logger log = LoggerFactory.getLogger(UserPurgeService.class);
+
+    private final UserRepository userRepository;
+
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    private final String instanceId;
+
+    private final Counter purgedUsers;
+
+    private final Timer purgeTimer;
+
+    public UserPurgeService(
+        UserRepository userRepository,
+        SchedulerLockRepository schedulerLockRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = applicationProperties.getUserPurge().getChunkSize();
+        this.instanceId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        this.purgedUsers = Counter.builder("users.purged").tag("reason", "not-activated").register(meterRegistry);
+        this.purgeTimer = Timer.builder("users.purge").tag("reason", "not-activated").register(meterRegistry);
+    }
+
+    /**
+     * Delete the users who did not activate their account within 3 days, unless another instance is deleting them.
+     *
+     * @return the number of users deleted.
+     */
+    public int removeNotActivatedUsers() {
+        Instant now = Instant.now();
+        if (!schedulerLockRepository.tryLock(LOCK_NAME, now, now.plus(LOCK_AT_MOST_FOR), instanceId)) {
+            log.debug("Not activated users are being removed by another instance");
+            return 0;
+        }
+        long start = System.nanoTime();
+        int purged = 0;
+        try {
+            Instant createdBefore = now.minus(3, ChronoUnit.DAYS);
+            long afterId = Long.MIN_VALUE;
+            List<Long> ids;
+            do {
+                ids = userRepository.findIdsOfNotActivatedUsers(afterId, createdBefore, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    long fromId = afterId;
+                    long toId = ids.get(ids.size() - 1);
+                    purged += transactionTemplate.execute(status -> deleteChunk(fromId, toId, createdBefore));
+                    afterId = toId;
+                }
+            } while (ids.size() == chunkSize);
+            log.debug("Deleted {} not activated users", purged);
+            return purged;
+        } finally {
+            purgedUsers.increment(purged);
+            purgeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            Instant lockedUntil = now.plus(LOCK_AT_LEAST_FOR);
+            Instant end = Instant.now();
+            schedulerLockRepository.unlock(LOCK_NAME, lockedUntil.isAfter(end) ? lockedUntil : end, instanceId);
+        }
+    }
+
+    private int deleteChunk(long afterId, long toId, Instant createdBefore) {
+        userRepository.deleteAuthoritiesOfNotActivatedUsers(afterId, toId, createdBefore);
+        return userRepository.deleteNotActivatedUsers(afterId, toId, createdBefore);
+    }
+}
@@ -1,25 +1,33 @@
 package com.tr.jenkinsproject.service;
 
+import com.tr.jenkinsproject.config.ApplicationProperties;
 import com.tr.jenkinsproject.config.Constants;
 import com.tr.jenkinsproject.domain.Authority;
 import com.tr.jenkinsproject.domain.User;
-import com.tr.jenkinsproject.repository.AuthorityRepository;
 import com.tr.jenkinsproject.repository.UserRepository;
 import com.tr.jenkinsproject.security.AuthoritiesConstants;
+import com.tr.jenkinsproject.security.AuthorityRegistry;
+import com.tr.jenkinsproject.security.BoundedPasswordEncoder;
 import com.tr.jenkinsproject.security.SecurityUtils;
+import com.tr.jenkinsproject.security.UserDetailsCache;
 import com.tr.jenkinsproject.service.dto.AdminUserDTO;
 import com.tr.jenkinsproject.service.dto.UserDTO;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -34,14 +42,34 @@ public class UserService {
 
     private final UserRepository userRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final BoundedPasswordEncoder passwordEncoder;
 
-    private final AuthorityRepository authorityRepository;
+    private final AuthorityRegistry authorityRegistry;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final RefreshTokenService refreshTokenService;
+
+    private final UserDetailsCache userDetailsCache;
+
+    private final UserPurgeService userPurgeService;
+
+    private final int bulkHashingParallelism;
+
+    public UserService(
+        UserRepository userRepository,
+        BoundedPasswordEncoder passwordEncoder,
+        AuthorityRegistry authorityRegistry,
+        RefreshTokenService refreshTokenService,
+        UserDetailsCache userDetailsCache,
+        UserPurgeService userPurgeService,
+        ApplicationProperties applicationProperties
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.authorityRepository = authorityRepository;
+        this.authorityRegistry = authorityRegistry;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsCache = userDetailsCache;
+        this.userPurgeService = userPurgeService;
+        this.bulkHashingParallelism = applicationProperties.getSecurity().getPasswordHashing().getBulkParallelism();
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -52,6 +80,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
+                this.clearUserCaches(user);
                 log.debug("Activated user: {}", user);
                 return user;
             });
@@ -66,6 +95,8 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                refreshTokenService.revokeAll(user);
+                this.clearUserCaches(user);
                 return user;
             });
     }
@@ -115,7 +146,7 @@ public class UserService {
         // new user gets registration key
         newUser.setActivationKey(RandomUtil.generateActivationKey());
         Set<Authority> authorities = new HashSet<>();
-        authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
+        authorityRegistry.getReference(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
         log.debug("Created Information for User: {}", newUser);
@@ -128,10 +159,47 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        this.clearUserCaches(existingUser);
         return true;
     }
 
     public User createUser(AdminUserDTO userDTO) {
+        User user = newUser(userDTO);
+        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
+        user.setPassword(encryptedPassword);
+        userRepository.save(user);
+        log.debug("Created Information for User: {}", user);
+        return user;
+    }
+
+    /**
+     * Create many users at once.
+     * <p>
+     * The random passwords of the users are hashed on the shared password hashing pool, with at most
+     * {@code application.security.password-hashing.bulk-parallelism} hashes at a time, before the users are inserted with
+     * JDBC batching. No transaction is held while hashing.
+     * <p>
+     * The creation is all or nothing: if a password can't be hashed, because the pool is saturated by other requests, no
+     * user is inserted and the exception is thrown.
+     *
+     * @param userDTOs the users to create, whose logins and emails are not used yet.
+     * @return the created users, in the same order.
+     * @throws com.tr.jenkinsproject.security.PasswordHashingUnavailableException if the passwords can't be hashed right now.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<User> createUsers(List<AdminUserDTO> userDTOs) {
+        List<User> users = userDTOs.stream().map(this::newUser).collect(Collectors.toList());
+        List<String> rawPasswords = users.stream().map(user -> RandomUtil.generatePassword()).collect(Collectors.toList());
+        List<String> encryptedPasswords = passwordEncoder.encodeAll(rawPasswords, bulkHashingParallelism);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setPassword(encryptedPasswords.get(i));
+        }
+        userRepository.insertAll(users);
+        log.debug("Created Information for {} Users", users.size());
+        return users;
+    }
+
+    private User newUser(AdminUserDTO userDTO) {
         User user = new User();
         user.setLogin(userDTO.getLogin().toLowerCase());
         user.setFirstName(userDTO.getFirstName());
@@ -145,8 +213,6 @@ public class UserService {
         } else {
             user.setLangKey(userDTO.getLangKey());
         }
-        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
-        user.setPassword(encryptedPassword);
         user.setResetKey(RandomUtil.generateResetKey());
         user.setResetDate(Instant.now());
         user.setActivated(true);
@@ -154,14 +220,12 @@ public class UserService {
             Set<Authority> authorities = userDTO
                 .getAuthorities()
                 .stream()
-                .map(authorityRepository::findById)
+                .map(authorityRegistry::getReference)
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .collect(Collectors.toSet());
             user.setAuthorities(authorities);
         }
-        userRepository.save(user);
-        log.debug("Created Information for User: {}", user);
         return user;
     }
 
@@ -177,6 +241,7 @@ public class UserService {
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
+                this.clearUserCaches(user);
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -191,7 +256,7 @@ public class UserService {
                 userDTO
                     .getAuthorities()
                     .stream()
-                    .map(authorityRepository::findById)
+                    .map(authorityRegistry::getReference)
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
@@ -206,6 +271,7 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
+                this.clearUserCaches(user);
                 log.debug("Deleted User: {}", user);
             });
     }
@@ -218,12 +284,24 @@ public class UserService {
      * @param email     email id of user.
      * @param langKey   language key.
      * @param imageUrl  image URL of user.
+     * @return the updated user, or empty if the current user is not found.
+     * @throws EmailAlreadyUsedException if the email is already used by another user.
      */
-    public void updateUser(String firstName, String lastName, String email, String langKey, String imageUrl) {
-        SecurityUtils
+    public Optional<User> updateUser(String firstName, String lastName, String email, String langKey, String imageUrl) {
+        return SecurityUtils
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .ifPresent(user -> {
+            .map(user -> {
+                // the uniqueness of the email is only checked when it changes
+                if (email != null && !email.equalsIgnoreCase(user.getEmail())) {
+                    userRepository
+                        .findOneByEmailIgnoreCase(email)
+                        .filter(existingUser -> !existingUser.getId().equals(user.getId()))
+                        .ifPresent(existingUser -> {
+                            throw new EmailAlreadyUsedException();
+                        });
+                }
+                this.clearUserCaches(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -232,6 +310,7 @@ public class UserService {
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
                 log.debug("Changed Information for User: {}", user);
+                return user;
             });
     }
 
@@ -247,13 +326,56 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                refreshTokenService.revokeAll(user);
+                this.clearUserCaches(user);
                 log.debug("Changed password for User: {}", user);
             });
     }
 
+    /**
+     * Get a page of users with their authorities.
+     * <p>
+     * The ids of the page are read first, then the users are loaded with their authorities in a single query, as a fetch
+     * join can't be paginated in the database. Reading a page then takes the same number of queries whatever its size.
+     *
+     * @param pageable the pagination information.
+     * @return the page of users.
+     */
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(AdminUserDTO::new);
+        Page<Long> ids = userRepository.findAllIds(pageable);
+        return new PageImpl<>(getManagedUsers(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Search the users whose login starts with the query, or whose email or names contain it, with keyset pagination.
+     *
+     * @param query the text to search.
+     * @param order the order of the users, on a single property.
+     * @param afterValue the value of the ordered property of the last user already read, or {@code null}.
+     * @param afterId the id of the last user already read, or {@code null} for the first slice.
+     * @param size the size of the slice.
+     * @return the slice of matching users.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AdminUserDTO> searchManagedUsers(String query, Sort.Order order, String afterValue, Long afterId, int size) {
+        Slice<Long> ids = userRepository.searchIds(query, order, afterValue, afterId, size);
+        return new SliceImpl<>(getManagedUsers(ids.getContent()), ids.getPageable(), ids.hasNext());
+    }
+
+    /**
+     * Load the users with the given ids and their authorities, in the order of the ids, skipping the users deleted since
+     * their ids were read.
+     */
+    private List<AdminUserDTO> getManagedUsers(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, User> usersById = userRepository
+            .findAllWithAuthoritiesByIdIn(ids)
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream().map(usersById::get).filter(Objects::nonNull).map(AdminUserDTO::new).collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
@@ -274,24 +396,24 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am), and runs on a single instance of the cluster. The users
+     * are deleted by chunks, each in its own transaction, see {@link UserPurgeService}.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-            });
+        userPurgeService.removeNotActivatedUsers();
     }
 
     /**
      * Gets a list of all the authorities.
      * @return a list of all the authorities.
      */
-    @Transactional(readOnly = true)
     public List<String> getAuthorities() {
-        return authorityRepository.findAll().stream().map(Authority::getName).collect(Collectors.toList());
+        return authorityRegistry.getNames();
+    }
+
+    private void clearUserCaches(User user) {
+        userDetailsCache.evict(user);
     }
 }
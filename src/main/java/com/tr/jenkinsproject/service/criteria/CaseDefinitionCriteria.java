@@ -0,0 +1,150 @@
+package com.tr.jenkinsproject.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.BooleanFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link com.tr.jenkinsproject.domain.CaseDefinition} entity. This class is used
+ * in {@link com.tr.jenkinsproject.web.rest.CaseDefinitionResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /case-definitions?id.greaterThan=5&name.contains=something&active.equals=true}
+ * As Spring is unable to properly convert the types, unless specific {@link tech.jhipster.service.filter.Filter} class are used,
+ * we need to use fix type specific filters.
+ */
+public class CaseDefinitionCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter name;
+
+    private StringFilter description;
+
+    private BooleanFilter active;
+
+    private Boolean distinct;
+
+    public CaseDefinitionCriteria() {}
+
+    public CaseDefinitionCriteria(CaseDefinitionCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.name = other.name == null ? null : other.name.copy();
+        this.description = other.description == null ? null : other.description.copy();
+        this.active = other.active == null ? null : other.active.copy();
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public CaseDefinitionCriteria copy() {
+        return new CaseDefinitionCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getName() {
+        return name;
+    }
+
+    public StringFilter name() {
+        if (name == null) {
+            name = new StringFilter();
+        }
+        return name;
+    }
+
+    public void setName(StringFilter name) {
+        this.name = name;
+    }
+
+    public StringFilter getDescription() {
+        return description;
+    }
+
+    public StringFilter description() {
+        if (description == null) {
+            description = new StringFilter();
+        }
+        return description;
+    }
+
+    public void setDescription(StringFilter description) {
+        this.description = description;
+    }
+
+    public BooleanFilter getActive() {
+        return active;
+    }
+
+    public BooleanFilter active() {
+        if (active == null) {
+            active = new BooleanFilter();
+        }
+        return active;
+    }
+
+    public void setActive(BooleanFilter active) {
+        this.active = active;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CaseDefinitionCriteria that = (CaseDefinitionCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(description, that.description) &&
+            Objects.equals(active, that.active) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, description, active, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CaseDefinitionCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (name != null ? "name=" + name + ", " : "") +
+            (description != null ? "description=" + description + ", " : "") +
+            (active != null ? "active=" + active + ", " : "") +
+            (distinct != null ? "distinct=" + distinct + ", " : "") +
+            "}";
+    }
+}
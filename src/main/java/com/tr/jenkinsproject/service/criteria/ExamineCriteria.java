@@ -0,0 +1,129 @@
+package com.tr.jenkinsproject.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link com.tr.jenkinsproject.domain.Examine} entity. This class is used
+ * in {@link com.tr.jenkinsproject.web.rest.ExamineResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /examines?id.greaterThan=5&name.contains=something&caseDefinitionId.in=1,2}
+ * As Spring is unable to properly convert the types, unless specific {@link tech.jhipster.service.filter.Filter} class are used,
+ * we need to use fix type specific filters.
+ */
+public class ExamineCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter name;
+
+    private LongFilter caseDefinitionId;
+
+    private Boolean distinct;
+
+    public ExamineCriteria() {}
+
+    public ExamineCriteria(ExamineCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.name = other.name == null ? null : other.name.copy();
+        this.caseDefinitionId = other.caseDefinitionId == null ? null : other.caseDefinitionId.copy();
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public ExamineCriteria copy() {
+        return new ExamineCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getName() {
+        return name;
+    }
+
+    public StringFilter name() {
+        if (name == null) {
+            name = new StringFilter();
+        }
+        return name;
+    }
+
+    public void setName(StringFilter name) {
+        this.name = name;
+    }
+
+    public LongFilter getCaseDefinitionId() {
+        return caseDefinitionId;
+    }
+
+    public LongFilter caseDefinitionId() {
+        if (caseDefinitionId == null) {
+            caseDefinitionId = new LongFilter();
+        }
+        return caseDefinitionId;
+    }
+
+    public void setCaseDefinitionId(LongFilter caseDefinitionId) {
+        this.caseDefinitionId = caseDefinitionId;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ExamineCriteria that = (ExamineCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(caseDefinitionId, that.caseDefinitionId) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, caseDefinitionId, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ExamineCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (name != null ? "name=" + name + ", " : "") +
+            (caseDefinitionId != null ? "caseDefinitionId=" + caseDefinitionId + ", " : "") +
+            (distinct != null ? "distinct=" + distinct + ", " : "") +
+            "}";
+    }
+}
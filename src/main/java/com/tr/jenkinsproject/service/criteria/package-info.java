@@ -0,0 +1,4 @@
+/**
+ * Criteria used by the query services to filter the entities.
+ */
+package com.tr.jenkinsproject.service.criteria;
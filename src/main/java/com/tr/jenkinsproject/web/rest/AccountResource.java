@@ -1,8 +1,7 @@
 package com.tr.jenkinsproject.web.rest;
 
 import com.tr.jenkinsproject.domain.User;
-import com.tr.jenkinsproject.repository.UserRepository;
-import com.tr.jenkinsproject.security.SecurityUtils;
+import com.tr.jenkinsproject.security.RateLimiter;
 import com.tr.jenkinsproject.service.MailService;
 import com.tr.jenkinsproject.service.UserService;
 import com.tr.jenkinsproject.service.dto.AdminUserDTO;
@@ -35,16 +34,16 @@ public class AccountResource {
 
     private final Logger log = LoggerFactory.getLogger(AccountResource.class);
 
-    private final UserRepository userRepository;
-
     private final UserService userService;
 
     private final MailService mailService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
-        this.userRepository = userRepository;
+    private final RateLimiter rateLimiter;
+
+    public AccountResource(UserService userService, MailService mailService, RateLimiter rateLimiter) {
         this.userService = userService;
         this.mailService = mailService;
+        this.rateLimiter = rateLimiter;
     }
 
     /**
@@ -114,24 +113,9 @@ public class AccountResource {
      */
     @PostMapping("/account")
     public void saveAccount(@Valid @RequestBody AdminUserDTO userDTO) {
-        String userLogin = SecurityUtils
-            .getCurrentUserLogin()
-            .orElseThrow(() -> new AccountResourceException("Current user login not found"));
-        Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
-        if (existingUser.isPresent() && (!existingUser.get().getLogin().equalsIgnoreCase(userLogin))) {
-            throw new EmailAlreadyUsedException();
-        }
-        Optional<User> user = userRepository.findOneByLogin(userLogin);
-        if (!user.isPresent()) {
-            throw new AccountResourceException("User could not be found");
-        }
-        userService.updateUser(
-            userDTO.getFirstName(),
-            userDTO.getLastName(),
-            userDTO.getEmail(),
-            userDTO.getLangKey(),
-            userDTO.getImageUrl()
-        );
+        userService
+            .updateUser(userDTO.getFirstName(), userDTO.getLastName(), userDTO.getEmail(), userDTO.getLangKey(), userDTO.getImageUrl())
+            .orElseThrow(() -> new AccountResourceException("User could not be found"));
     }
 
     /**
@@ -154,8 +138,10 @@ public class AccountResource {
      * @param mail the mail of the user.
      */
     @PostMapping(path = "/account/reset-password/init")
-    public void requestPasswordReset(@RequestBody String mail) {
-        Optional<User> user = userService.requestPasswordReset(mail);
+    public void requestPasswordReset(@RequestBody String mail, HttpServletRequest request) {
+        String lowercaseMail = mail.toLowerCase(Locale.ENGLISH);
+        rateLimiter.acquireForLogin(lowercaseMail, request.getRemoteAddr());
+        Optional<User> user = userService.requestPasswordReset(lowercaseMail);
         if (user.isPresent()) {
             mailService.sendPasswordResetMail(user.get());
         } else {
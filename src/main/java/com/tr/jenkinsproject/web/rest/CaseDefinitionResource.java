@@ -2,7 +2,14 @@ package com.tr.jenkinsproject.web.rest;
 
 import com.tr.jenkinsproject.domain.CaseDefinition;
 import com.tr.jenkinsproject.repository.CaseDefinitionRepository;
+import com.tr.jenkinsproject.repository.TableVersionRepository;
+import com.tr.jenkinsproject.repository.SearchHit;
+import com.tr.jenkinsproject.service.CaseDefinitionQueryService;
+import com.tr.jenkinsproject.service.criteria.CaseDefinitionCriteria;
 import com.tr.jenkinsproject.web.rest.errors.BadRequestAlertException;
+import com.tr.jenkinsproject.web.rest.errors.PreconditionFailedException;
+import com.tr.jenkinsproject.web.rest.util.ETagUtil;
+import com.tr.jenkinsproject.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -11,8 +18,10 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -35,13 +44,25 @@ public class CaseDefinitionResource {
 
     private static final String ENTITY_NAME = "caseDefinition";
 
+    private static final String TABLE_NAME = "case_definition";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CaseDefinitionRepository caseDefinitionRepository;
 
-    public CaseDefinitionResource(CaseDefinitionRepository caseDefinitionRepository) {
+    private final CaseDefinitionQueryService caseDefinitionQueryService;
+
+    private final TableVersionRepository tableVersionRepository;
+
+    public CaseDefinitionResource(
+        CaseDefinitionRepository caseDefinitionRepository,
+        CaseDefinitionQueryService caseDefinitionQueryService,
+        TableVersionRepository tableVersionRepository
+    ) {
         this.caseDefinitionRepository = caseDefinitionRepository;
+        this.caseDefinitionQueryService = caseDefinitionQueryService;
+        this.tableVersionRepository = tableVersionRepository;
     }
 
     /**
@@ -66,17 +87,24 @@ public class CaseDefinitionResource {
 
     /**
      * {@code PUT  /case-definitions/:id} : Updates an existing caseDefinition.
+     * <p>
+     * The caseDefinition is updated only if it still has the given version, a caseDefinition without version overwrites
+     * the current one.
      *
      * @param id the id of the caseDefinition to save.
+     * @param ifMatch the entity tag of the caseDefinition the client expects to update, if any.
      * @param caseDefinition the caseDefinition to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated caseDefinition,
      * or with status {@code 400 (Bad Request)} if the caseDefinition is not valid,
+     * or with status {@code 409 (Conflict)} if the caseDefinition was updated concurrently,
+     * or with status {@code 412 (Precondition Failed)} if the caseDefinition does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the caseDefinition couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/case-definitions/{id}")
     public ResponseEntity<CaseDefinition> updateCaseDefinition(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody CaseDefinition caseDefinition
     ) throws URISyntaxException {
         log.debug("REST request to update CaseDefinition : {}, {}", id, caseDefinition);
@@ -87,14 +115,28 @@ public class CaseDefinitionResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!caseDefinitionRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        Optional<Long> expectedVersion = ETagUtil.parseIfMatchVersion(ifMatch);
+        Long version = expectedVersion.orElse(caseDefinition.getVersion());
+        if (version == null) {
+            version = caseDefinitionRepository.findVersionById(id).orElseThrow(() -> notFound(id, ifMatch));
         }
-
-        CaseDefinition result = caseDefinitionRepository.save(caseDefinition);
+        int updated = caseDefinitionRepository.updateIfVersionMatches(
+            id,
+            version,
+            caseDefinition.getName(),
+            caseDefinition.getDescription(),
+            caseDefinition.getActive()
+        );
+        if (updated == 0) {
+            throw notFoundOrConflict(id, ifMatch, expectedVersion.isPresent());
+        }
+        tableVersionRepository.increment(TABLE_NAME);
+        // the update cleared the persistence context, so the stored caseDefinition is read again
+        CaseDefinition result = caseDefinitionRepository.findById(id).orElseThrow(() -> notFound(id, ifMatch));
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, caseDefinition.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .eTag(ETagUtil.versionETag(result.getVersion()))
             .body(result);
     }
 
@@ -102,16 +144,20 @@ public class CaseDefinitionResource {
      * {@code PATCH  /case-definitions/:id} : Partial updates given fields of an existing caseDefinition, field will ignore if it is null
      *
      * @param id the id of the caseDefinition to save.
+     * @param ifMatch the entity tag of the caseDefinition the client expects to update, if any.
      * @param caseDefinition the caseDefinition to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated caseDefinition,
      * or with status {@code 400 (Bad Request)} if the caseDefinition is not valid,
      * or with status {@code 404 (Not Found)} if the caseDefinition is not found,
+     * or with status {@code 409 (Conflict)} if the caseDefinition was updated concurrently,
+     * or with status {@code 412 (Precondition Failed)} if the caseDefinition does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the caseDefinition couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/case-definitions/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<CaseDefinition> partialUpdateCaseDefinition(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody CaseDefinition caseDefinition
     ) throws URISyntaxException {
         log.debug("REST request to partial update CaseDefinition partially : {}, {}", id, caseDefinition);
@@ -122,58 +168,176 @@ public class CaseDefinitionResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
+        CaseDefinition existingCaseDefinition = caseDefinitionRepository.findById(id).orElseThrow(() -> notFound(id, ifMatch));
+        Long version = existingCaseDefinition.getVersion();
+        Optional<Long> expectedVersion = ETagUtil.parseIfMatchVersion(ifMatch);
+        if (expectedVersion.isPresent() && !expectedVersion.get().equals(version)) {
+            throw new PreconditionFailedException("The caseDefinition " + id + " has version " + version);
+        }
+        if (caseDefinition.getVersion() != null && !caseDefinition.getVersion().equals(version)) {
+            throw new OptimisticLockingFailureException("The caseDefinition " + id + " has version " + version);
+        }
+        String name = caseDefinition.getName() != null ? caseDefinition.getName() : existingCaseDefinition.getName();
+        String description = caseDefinition.getDescription() != null
+            ? caseDefinition.getDescription()
+            : existingCaseDefinition.getDescription();
+        Boolean active = caseDefinition.getActive() != null ? caseDefinition.getActive() : existingCaseDefinition.getActive();
+
+        // the existing caseDefinition is detached by the update, so it is only changed afterwards to become the response
+        if (caseDefinitionRepository.updateIfVersionMatches(id, version, name, description, active) == 0) {
+            throw notFoundOrConflict(id, ifMatch, expectedVersion.isPresent());
+        }
+        tableVersionRepository.increment(TABLE_NAME);
+        existingCaseDefinition.name(name).description(description).active(active).version(version + 1);
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, caseDefinition.getId().toString()))
+            .eTag(ETagUtil.versionETag(existingCaseDefinition.getVersion()))
+            .body(existingCaseDefinition);
+    }
+
+    private RuntimeException notFoundOrConflict(Long id, String ifMatch, boolean ifMatchVersion) {
         if (!caseDefinitionRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<CaseDefinition> result = caseDefinitionRepository
-            .findById(caseDefinition.getId())
-            .map(existingCaseDefinition -> {
-                if (caseDefinition.getName() != null) {
-                    existingCaseDefinition.setName(caseDefinition.getName());
-                }
-                if (caseDefinition.getDescription() != null) {
-                    existingCaseDefinition.setDescription(caseDefinition.getDescription());
-                }
-                if (caseDefinition.getActive() != null) {
-                    existingCaseDefinition.setActive(caseDefinition.getActive());
-                }
-
-                return existingCaseDefinition;
-            })
-            .map(caseDefinitionRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, caseDefinition.getId().toString())
-        );
+            return notFound(id, ifMatch);
+        }
+        if (ifMatchVersion) {
+            return new PreconditionFailedException("The caseDefinition " + id + " does not match the If-Match header");
+        }
+        return new OptimisticLockingFailureException("The caseDefinition " + id + " was updated concurrently");
+    }
+
+    /**
+     * A missing caseDefinition fails any {@code If-Match} header, {@code *} included, as there is no current representation.
+     */
+    private RuntimeException notFound(Long id, String ifMatch) {
+        if (ifMatch != null) {
+            return new PreconditionFailedException("The caseDefinition " + id + " does not exist");
+        }
+        return new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
     }
 
     /**
      * {@code GET  /case-definitions} : get all the caseDefinitions.
+     * <p>
+     * When the {@code after} cursor is given (empty for the first slice), the caseDefinitions are read with keyset
+     * pagination ordered by id: no count query is run and the cursor of the next slice is sent in the {@code Link} header.
+     * <p>
+     * The list has an entity tag which changes with any caseDefinition, so pollers sending it in {@code If-None-Match}
+     * get a {@code 304 (Not Modified)} without the caseDefinitions being read: the tag only reads the change counter of
+     * the table.
      *
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor of the last caseDefinition already read, to use keyset pagination.
+     * @param ifNoneMatch the entity tags of the lists the client already has, if any.
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of caseDefinitions in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of caseDefinitions in body,
+     * or with status {@code 304 (Not Modified)} if the list did not change.
      */
     @GetMapping("/case-definitions")
-    public ResponseEntity<List<CaseDefinition>> getAllCaseDefinitions(Pageable pageable) {
-        log.debug("REST request to get a page of CaseDefinitions");
-        Page<CaseDefinition> page = caseDefinitionRepository.findAll(pageable);
+    public ResponseEntity<List<CaseDefinition>> getAllCaseDefinitions(
+        CaseDefinitionCriteria criteria,
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAM, required = false) String after,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        Pageable pageable
+    ) {
+        // the table version is read before the caseDefinitions, so the tag is never newer than the list
+        String eTag = ETagUtil.tableETag(
+            tableVersionRepository.findVersion(TABLE_NAME),
+            ServletUriComponentsBuilder.fromCurrentRequest().build().getQuery()
+        );
+        if (ifNoneMatch != null && ETagUtil.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        if (after != null) {
+            log.debug("REST request to get a slice of CaseDefinitions by criteria: {} after cursor : {}", criteria, after);
+            long afterId = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME).orElse(Long.MIN_VALUE);
+            Slice<CaseDefinition> slice = caseDefinitionQueryService.findByCriteria(criteria, afterId, pageable.getPageSize());
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                CaseDefinition::getId
+            );
+            return ResponseEntity.ok().headers(headers).eTag(eTag).body(slice.getContent());
+        }
+        log.debug("REST request to get CaseDefinitions by criteria: {}", criteria);
+        Page<CaseDefinition> page = caseDefinitionQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ResponseEntity.ok().headers(headers).eTag(eTag).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /case-definitions/count} : count all the caseDefinitions.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/case-definitions/count")
+    public ResponseEntity<Long> countCaseDefinitions(CaseDefinitionCriteria criteria) {
+        log.debug("REST request to count CaseDefinitions by criteria: {}", criteria);
+        return ResponseEntity.ok().body(caseDefinitionQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /_search/case-definitions?q=:query} : search the caseDefinitions by the words of their name and description.
+     * <p>
+     * The caseDefinitions are returned best match first and read with keyset pagination: the cursor of the next slice
+     * is sent in the {@code Link} header.
+     *
+     * @param query the words to search.
+     * @param after the cursor of the last caseDefinition already read.
+     * @param pageable the pagination information, only its size is used.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matching caseDefinitions in body,
+     * or with status {@code 400 (Bad Request)} if the query is blank.
+     */
+    @GetMapping("/_search/case-definitions")
+    public ResponseEntity<List<CaseDefinition>> searchCaseDefinitions(
+        @RequestParam("q") String query,
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAM, required = false) String after,
+        Pageable pageable
+    ) {
+        log.debug("REST request to search a slice of CaseDefinitions for query : {} after cursor : {}", query, after);
+        if (query.isBlank()) {
+            throw new BadRequestAlertException("The search query cannot be blank", ENTITY_NAME, "queryblank");
+        }
+        Optional<KeysetPaginationUtil.RankedCursor> cursor = KeysetPaginationUtil.decodeRankedCursor(after, ENTITY_NAME);
+        Slice<SearchHit<CaseDefinition>> slice = caseDefinitionQueryService.search(
+            query.strip(),
+            cursor.map(KeysetPaginationUtil.RankedCursor::getRank).orElse(null),
+            cursor.map(KeysetPaginationUtil.RankedCursor::getId).orElse(null),
+            pageable.getPageSize()
+        );
+        HttpHeaders headers = KeysetPaginationUtil.generateCursorPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            hit -> KeysetPaginationUtil.encodeCursor(hit.getRank(), hit.getEntity().getId())
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.map(SearchHit::getEntity).getContent());
     }
 
     /**
      * {@code GET  /case-definitions/:id} : get the "id" caseDefinition.
      *
      * @param id the id of the caseDefinition to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the caseDefinition, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tags of the caseDefinition the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the caseDefinition,
+     * or with status {@code 304 (Not Modified)} if the caseDefinition did not change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/case-definitions/{id}")
-    public ResponseEntity<CaseDefinition> getCaseDefinition(@PathVariable Long id) {
+    public ResponseEntity<CaseDefinition> getCaseDefinition(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get CaseDefinition : {}", id);
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = caseDefinitionRepository.findVersionById(id).map(ETagUtil::versionETag);
+            if (eTag.isPresent() && ETagUtil.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
         Optional<CaseDefinition> caseDefinition = caseDefinitionRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(caseDefinition);
+        HttpHeaders headers = new HttpHeaders();
+        caseDefinition.ifPresent(found -> headers.setETag(ETagUtil.versionETag(found.getVersion())));
+        return ResponseUtil.wrapOrNotFound(caseDefinition, headers);
     }
 
     /**
@@ -1,23 +1,54 @@
 package com.tr.jenkinsproject.web.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tr.jenkinsproject.domain.CaseDefinition;
 import com.tr.jenkinsproject.domain.Examine;
 import com.tr.jenkinsproject.repository.ExamineRepository;
+import com.tr.jenkinsproject.service.ExamineQueryService;
+import com.tr.jenkinsproject.service.criteria.ExamineCriteria;
 import com.tr.jenkinsproject.web.rest.errors.BadRequestAlertException;
+import com.tr.jenkinsproject.web.rest.errors.PreconditionFailedException;
+import com.tr.jenkinsproject.web.rest.util.ETagUtil;
+import com.tr.jenkinsproject.web.rest.util.KeysetPaginationUtil;
+import com.tr.jenkinsproject.web.rest.vm.BatchGetResultVM;
+import com.tr.jenkinsproject.web.rest.vm.BulkItemResultVM;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -35,13 +66,36 @@ public class ExamineResource {
 
     private static final String ENTITY_NAME = "examine";
 
+    private static final int BULK_MAX_SIZE = 10_000;
+
+    private static final int BATCH_GET_MAX_SIZE = 1_000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final ExamineRepository examineRepository;
 
-    public ExamineResource(ExamineRepository examineRepository) {
+    private final ExamineQueryService examineQueryService;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public ExamineResource(
+        ExamineRepository examineRepository,
+        ExamineQueryService examineQueryService,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
         this.examineRepository = examineRepository;
+        this.examineQueryService = examineQueryService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     /**
@@ -64,19 +118,70 @@ public class ExamineResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /examines/bulk} : Create new examines in a single request.
+     * <p>
+     * The examines are inserted with JDBC batching, examines which already have an ID are rejected.
+     *
+     * @param examines the examines to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each examine, in request order,
+     * or with status {@code 400 (Bad Request)} if there are too many examines.
+     */
+    @PostMapping("/examines/bulk")
+    public ResponseEntity<List<BulkItemResultVM>> createExamines(@RequestBody List<Examine> examines) {
+        log.debug("REST request to save {} Examines in bulk", examines.size());
+        if (examines.size() > BULK_MAX_SIZE) {
+            throw new BadRequestAlertException(
+                "A bulk request cannot contain more than " + BULK_MAX_SIZE + " examines",
+                ENTITY_NAME,
+                "bulktoolarge"
+            );
+        }
+        BulkItemResultVM[] results = new BulkItemResultVM[examines.size()];
+        List<Examine> newExamines = new ArrayList<>(examines.size());
+        for (int i = 0; i < examines.size(); i++) {
+            Examine examine = examines.get(i);
+            if (examine == null) {
+                results[i] = BulkItemResultVM.rejected(i, "itemnull");
+            } else if (examine.getId() != null) {
+                results[i] = BulkItemResultVM.rejected(i, "idexists");
+            } else {
+                newExamines.add(examine);
+            }
+        }
+        Iterator<Examine> created = examineRepository.insertAll(newExamines).iterator();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = BulkItemResultVM.created(i, created.next().getId());
+            }
+        }
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, String.valueOf(newExamines.size())))
+            .body(Arrays.asList(results));
+    }
+
     /**
      * {@code PUT  /examines/:id} : Updates an existing examine.
+     * <p>
+     * The examine is updated only if it still has the given version, an examine without version overwrites the current one.
      *
      * @param id the id of the examine to save.
+     * @param ifMatch the entity tag of the examine the client expects to update, if any.
      * @param examine the examine to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated examine,
      * or with status {@code 400 (Bad Request)} if the examine is not valid,
+     * or with status {@code 409 (Conflict)} if the examine was updated concurrently,
+     * or with status {@code 412 (Precondition Failed)} if the examine does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the examine couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/examines/{id}")
-    public ResponseEntity<Examine> updateExamine(@PathVariable(value = "id", required = false) final Long id, @RequestBody Examine examine)
-        throws URISyntaxException {
+    public ResponseEntity<Examine> updateExamine(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Examine examine
+    ) throws URISyntaxException {
         log.debug("REST request to update Examine : {}, {}", id, examine);
         if (examine.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -85,14 +190,20 @@ public class ExamineResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!examineRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        Optional<Long> expectedVersion = ETagUtil.parseIfMatchVersion(ifMatch);
+        Long version = expectedVersion.orElse(examine.getVersion());
+        if (version == null) {
+            version = examineRepository.findVersionById(id).orElseThrow(() -> notFound(id, ifMatch));
         }
-
-        Examine result = examineRepository.save(examine);
+        if (examineRepository.updateIfVersionMatches(id, version, examine.getName(), examine.getFk_examine__case_definition_id()) == 0) {
+            throw notFoundOrConflict(id, ifMatch, expectedVersion.isPresent());
+        }
+        // the update cleared the persistence context, so the stored examine and its case definition are read again
+        Examine result = examineRepository.findById(id).orElseThrow(() -> notFound(id, ifMatch));
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, examine.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .eTag(eTag(result))
             .body(result);
     }
 
@@ -100,16 +211,20 @@ public class ExamineResource {
      * {@code PATCH  /examines/:id} : Partial updates given fields of an existing examine, field will ignore if it is null
      *
      * @param id the id of the examine to save.
+     * @param ifMatch the entity tag of the examine the client expects to update, if any.
      * @param examine the examine to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated examine,
      * or with status {@code 400 (Bad Request)} if the examine is not valid,
      * or with status {@code 404 (Not Found)} if the examine is not found,
+     * or with status {@code 409 (Conflict)} if the examine was updated concurrently,
+     * or with status {@code 412 (Precondition Failed)} if the examine does not match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the examine couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/examines/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Examine> partialUpdateExamine(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody Examine examine
     ) throws URISyntaxException {
         log.debug("REST request to partial update Examine partially : {}, {}", id, examine);
@@ -120,52 +235,227 @@ public class ExamineResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!examineRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        Examine existingExamine = examineRepository.findById(id).orElseThrow(() -> notFound(id, ifMatch));
+        Long version = existingExamine.getVersion();
+        Optional<Long> expectedVersion = ETagUtil.parseIfMatchVersion(ifMatch);
+        if (expectedVersion.isPresent() && !expectedVersion.get().equals(version)) {
+            throw new PreconditionFailedException("The examine " + id + " has version " + version);
+        }
+        if (examine.getVersion() != null && !examine.getVersion().equals(version)) {
+            throw new OptimisticLockingFailureException("The examine " + id + " has version " + version);
         }
+        String name = examine.getName() != null ? examine.getName() : existingExamine.getName();
 
-        Optional<Examine> result = examineRepository
-            .findById(examine.getId())
-            .map(existingExamine -> {
-                if (examine.getName() != null) {
-                    existingExamine.setName(examine.getName());
-                }
+        // the existing examine is detached by the update, so it is only changed afterwards to become the response
+        if (examineRepository.updateIfVersionMatches(id, version, name, existingExamine.getFk_examine__case_definition_id()) == 0) {
+            throw notFoundOrConflict(id, ifMatch, expectedVersion.isPresent());
+        }
+        existingExamine.name(name).version(version + 1);
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, examine.getId().toString()))
+            .eTag(eTag(existingExamine))
+            .body(existingExamine);
+    }
 
-                return existingExamine;
-            })
-            .map(examineRepository::save);
+    private RuntimeException notFoundOrConflict(Long id, String ifMatch, boolean ifMatchVersion) {
+        if (!examineRepository.existsById(id)) {
+            return notFound(id, ifMatch);
+        }
+        if (ifMatchVersion) {
+            return new PreconditionFailedException("The examine " + id + " does not match the If-Match header");
+        }
+        return new OptimisticLockingFailureException("The examine " + id + " was updated concurrently");
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, examine.getId().toString())
-        );
+    /**
+     * The tag of an examine covers the case definition embedded in its representation.
+     */
+    private static String eTag(Examine examine) {
+        CaseDefinition caseDefinition = examine.getFk_examine__case_definition_id();
+        return ETagUtil.versionETag(examine.getVersion(), caseDefinition != null ? caseDefinition.getVersion() : null);
+    }
+
+    /**
+     * A missing examine fails any {@code If-Match} header, {@code *} included, as there is no current representation.
+     */
+    private RuntimeException notFound(Long id, String ifMatch) {
+        if (ifMatch != null) {
+            return new PreconditionFailedException("The examine " + id + " does not exist");
+        }
+        return new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
     }
 
     /**
      * {@code GET  /examines} : get all the examines.
+     * <p>
+     * When the {@code after} cursor is given (empty for the first slice), the examines are read with keyset
+     * pagination ordered by id: no count query is run and the cursor of the next slice is sent in the {@code Link} header.
      *
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor of the last examine already read, to use keyset pagination.
      * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of examines in body.
      */
     @GetMapping("/examines")
-    public ResponseEntity<List<Examine>> getAllExamines(Pageable pageable) {
-        log.debug("REST request to get a page of Examines");
-        Page<Examine> page = examineRepository.findAll(pageable);
+    public ResponseEntity<List<Examine>> getAllExamines(
+        ExamineCriteria criteria,
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAM, required = false) String after,
+        Pageable pageable
+    ) {
+        if (after != null) {
+            log.debug("REST request to get a slice of Examines by criteria: {} after cursor : {}", criteria, after);
+            long afterId = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME).orElse(Long.MIN_VALUE);
+            Slice<Examine> slice = examineQueryService.findByCriteria(criteria, afterId, pageable.getPageSize());
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                Examine::getId
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        log.debug("REST request to get Examines by criteria: {}", criteria);
+        Page<Examine> page = examineQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /examines?ids=:ids} : get the examines with the given ids.
+     * <p>
+     * The examines are read with a single {@code IN} query, duplicated ids are only returned once.
+     *
+     * @param ids the comma separated ids of the examines to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the examines found in request order
+     * and the ids which were not found, or with status {@code 400 (Bad Request)} if the ids are not valid.
+     */
+    @GetMapping(value = "/examines", params = "ids")
+    public ResponseEntity<BatchGetResultVM<Examine>> getExaminesByIds(@RequestParam("ids") String ids) {
+        log.debug("REST request to get Examines : {}", ids);
+        Set<Long> requestedIds = parseIds(ids);
+        Map<Long, Examine> examinesById = new HashMap<>();
+        for (Examine examine : examineRepository.findAllById(requestedIds)) {
+            examinesById.put(examine.getId(), examine);
+        }
+
+        List<Examine> items = new ArrayList<>(examinesById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Examine examine = examinesById.get(id);
+            if (examine != null) {
+                items.add(examine);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return ResponseEntity.ok().body(new BatchGetResultVM<>(items, missingIds));
+    }
+
+    /**
+     * Parse the comma separated ids of a batch request, in request order and without their duplicates.
+     */
+    private static Set<Long> parseIds(String ids) {
+        Set<Long> parsedIds = new LinkedHashSet<>();
+        int start = 0;
+        while (start <= ids.length()) {
+            int end = ids.indexOf(',', start);
+            if (end < 0) {
+                end = ids.length();
+            }
+            long id;
+            try {
+                id = Long.parseLong(ids, start, end, 10);
+            } catch (NumberFormatException e) {
+                throw new BadRequestAlertException("Invalid ids", ENTITY_NAME, "idsinvalid");
+            }
+            if (!parsedIds.contains(id)) {
+                if (parsedIds.size() == BATCH_GET_MAX_SIZE) {
+                    throw new BadRequestAlertException(
+                        "A batch request cannot contain more than " + BATCH_GET_MAX_SIZE + " ids",
+                        ENTITY_NAME,
+                        "batchtoolarge"
+                    );
+                }
+                parsedIds.add(id);
+            }
+            start = end + 1;
+        }
+        return parsedIds;
+    }
+
+    /**
+     * {@code GET  /examines/count} : count all the examines.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/examines/count")
+    public ResponseEntity<Long> countExamines(ExamineCriteria criteria) {
+        log.debug("REST request to count Examines by criteria: {}", criteria);
+        return ResponseEntity.ok().body(examineQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /examines/export} : export all the examines as newline delimited JSON.
+     * <p>
+     * The examines are read with a forward-only cursor and written one by one to the response, and the persistence
+     * context is cleared as they are written, so the memory used does not depend on the number of examines.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the examines streamed in body.
+     */
+    @GetMapping(value = "/examines/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportExamines() {
+        log.debug("REST request to export all Examines");
+        StreamingResponseBody body = outputStream ->
+            readOnlyTransactionTemplate.executeWithoutResult(status -> writeExamines(outputStream));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeExamines(OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writerFor(Examine.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Examine> examines = examineRepository.streamAllByOrderByIdAsc()) {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            int count = 0;
+            for (Iterator<Examine> iterator = examines.iterator(); iterator.hasNext();) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % ExamineRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * {@code GET  /examines/:id} : get the "id" examine.
      *
      * @param id the id of the examine to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the examine, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tags of the examine the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the examine,
+     * or with status {@code 304 (Not Modified)} if the examine did not change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/examines/{id}")
-    public ResponseEntity<Examine> getExamine(@PathVariable Long id) {
+    public ResponseEntity<Examine> getExamine(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Examine : {}", id);
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = examineRepository
+                .findVersionsById(id)
+                .map(versions -> ETagUtil.versionETag(versions.getVersion(), versions.getCaseDefinitionVersion()));
+            if (eTag.isPresent() && ETagUtil.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
         Optional<Examine> examine = examineRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(examine);
+        HttpHeaders headers = new HttpHeaders();
+        examine.ifPresent(found -> headers.setETag(eTag(found)));
+        return ResponseUtil.wrapOrNotFound(examine, headers);
     }
 
     /**
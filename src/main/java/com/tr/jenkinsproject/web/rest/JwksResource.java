@@ -0,0 +1,36 @@
+package com.tr.jenkinsproject.web.rest;
+
+import com.tr.jenkinsproject.security.jwt.TokenProvider;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller to publish the public keys the access tokens are signed with, so that other services can verify them offline.
+ */
+@RestController
+public class JwksResource {
+
+    private final TokenProvider tokenProvider;
+
+    public JwksResource(TokenProvider tokenProvider) {
+        this.tokenProvider = tokenProvider;
+    }
+
+    /**
+     * {@code GET /.well-known/jwks.json} : get the JSON Web Key Set of the access tokens.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the key set, whose keys are empty when the
+     * tokens are signed with a shared secret.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJsonWebKeySet() {
+        return ResponseEntity
+            .ok()
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+            .body(Map.of("keys", tokenProvider.getJsonWebKeys()));
+    }
+}
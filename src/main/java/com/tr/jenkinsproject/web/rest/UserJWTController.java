@@ -1,16 +1,25 @@
 package com.tr.jenkinsproject.web.rest;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.tr.jenkinsproject.security.RateLimiter;
+import com.tr.jenkinsproject.security.SecurityUtils;
 import com.tr.jenkinsproject.security.jwt.JWTFilter;
 import com.tr.jenkinsproject.security.jwt.TokenProvider;
+import com.tr.jenkinsproject.security.jwt.TokenRevocationList;
+import com.tr.jenkinsproject.service.RefreshTokenService;
 import com.tr.jenkinsproject.web.rest.vm.LoginVM;
+import com.tr.jenkinsproject.web.rest.vm.RefreshTokenVM;
+import java.util.Locale;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,26 +32,88 @@ public class UserJWTController {
 
     private final TokenProvider tokenProvider;
 
+    private final TokenRevocationList tokenRevocationList;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final RateLimiter rateLimiter;
+
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    public UserJWTController(
+        TokenProvider tokenProvider,
+        TokenRevocationList tokenRevocationList,
+        RefreshTokenService refreshTokenService,
+        RateLimiter rateLimiter,
+        AuthenticationManagerBuilder authenticationManagerBuilder
+    ) {
         this.tokenProvider = tokenProvider;
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenService = refreshTokenService;
+        this.rateLimiter = rateLimiter;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
     }
 
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
-        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-            loginVM.getUsername(),
-            loginVM.getPassword()
-        );
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        String login = loginVM.getUsername().toLowerCase(Locale.ENGLISH);
+        rateLimiter.checkLogin(login, request.getRemoteAddr());
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(login, loginVM.getPassword());
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        Authentication authentication;
+        try {
+            authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        } catch (AuthenticationException e) {
+            rateLimiter.acquireForLogin(login, request.getRemoteAddr());
+            throw e;
+        }
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.createToken(authentication, loginVM.isRememberMe());
+        String jwt = tokenProvider.createToken(authentication, false);
+        String refreshToken = refreshTokenService.createRefreshToken(authentication.getName(), loginVM.isRememberMe());
+        return tokenResponse(jwt, refreshToken);
+    }
+
+    /**
+     * {@code POST  /token/refresh} : issue a new access token for a refresh token, without authenticating again.
+     * <p>
+     * The refresh token can only be used once, the response contains the refresh token to use next.
+     *
+     * @param refreshTokenVM the refresh token.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the new tokens in body.
+     * @throws BadCredentialsException {@code 401 (Unauthorized)} if the refresh token is unknown, expired or already used.
+     */
+    @PostMapping("/token/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        RefreshTokenService.Rotation rotation = refreshTokenService
+            .rotate(refreshTokenVM.getRefreshToken())
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        String jwt = tokenProvider.createToken(rotation.getAuthentication(), false);
+        return tokenResponse(jwt, rotation.getRefreshToken());
+    }
+
+    private ResponseEntity<JWTToken> tokenResponse(String jwt, String refreshToken) {
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
+    }
+
+    /**
+     * {@code POST  /logout} : revoke the token of the current user until its expiration, and its refresh token if given.
+     *
+     * @param refreshTokenVM the refresh token, optional.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenVM refreshTokenVM) {
+        if (refreshTokenVM != null && refreshTokenVM.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshTokenVM.getRefreshToken());
+        }
+        SecurityUtils
+            .getCurrentUserJWT()
+            .flatMap(tokenProvider::verifyToken)
+            .filter(claims -> claims.getId() != null)
+            .ifPresent(claims -> tokenRevocationList.revoke(claims.getId(), claims.getExpiration().toInstant()));
+        return ResponseEntity.noContent().build();
     }
 
     /**
@@ -52,8 +123,11 @@ public class UserJWTController {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -64,5 +138,14 @@ public class UserJWTController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
@@ -10,17 +10,22 @@ import com.tr.jenkinsproject.service.dto.AdminUserDTO;
 import com.tr.jenkinsproject.web.rest.errors.BadRequestAlertException;
 import com.tr.jenkinsproject.web.rest.errors.EmailAlreadyUsedException;
 import com.tr.jenkinsproject.web.rest.errors.LoginAlreadyUsedException;
+import com.tr.jenkinsproject.web.rest.util.KeysetPaginationUtil;
+import com.tr.jenkinsproject.web.rest.vm.BulkItemResultVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.Collections;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -76,6 +81,8 @@ public class UserResource {
         )
     );
 
+    private static final int BULK_MAX_SIZE = 5_000;
+
     private final Logger log = LoggerFactory.getLogger(UserResource.class);
 
     @Value("${jhipster.clientApp.name}")
@@ -87,10 +94,13 @@ public class UserResource {
 
     private final MailService mailService;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    private final Validator validator;
+
+    public UserResource(UserService userService, UserRepository userRepository, MailService mailService, Validator validator) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.mailService = mailService;
+        this.validator = validator;
     }
 
     /**
@@ -129,6 +139,76 @@ public class UserResource {
         }
     }
 
+    /**
+     * {@code POST  /admin/users/bulk} : Creates new users in a single request.
+     * <p>
+     * The logins and emails of all the users are checked with one query each, then the users are created like with
+     * {@code POST /admin/users} and their creation emails are queued. Users which are not valid, already have an ID, or
+     * whose login or email is already in use, in the database or earlier in the request, are rejected.
+     *
+     * @param userDTOs the users to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each user, in request order,
+     * or with status {@code 400 (Bad Request)} if there are too many users.
+     */
+    @PostMapping("/users/bulk")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<BulkItemResultVM>> createUsers(@RequestBody List<AdminUserDTO> userDTOs) {
+        log.debug("REST request to save {} Users in bulk", userDTOs.size());
+        if (userDTOs.size() > BULK_MAX_SIZE) {
+            throw new BadRequestAlertException(
+                "A bulk request cannot contain more than " + BULK_MAX_SIZE + " users",
+                "userManagement",
+                "bulktoolarge"
+            );
+        }
+        BulkItemResultVM[] results = new BulkItemResultVM[userDTOs.size()];
+        Set<String> logins = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < userDTOs.size(); i++) {
+            AdminUserDTO userDTO = userDTOs.get(i);
+            if (userDTO == null) {
+                results[i] = BulkItemResultVM.rejected(i, "itemnull");
+            } else if (userDTO.getId() != null) {
+                results[i] = BulkItemResultVM.rejected(i, "idexists");
+            } else if (!validator.validate(userDTO).isEmpty()) {
+                results[i] = BulkItemResultVM.rejected(i, "validation");
+            } else {
+                logins.add(userDTO.getLogin().toLowerCase());
+                if (userDTO.getEmail() != null) {
+                    emails.add(userDTO.getEmail().toLowerCase());
+                }
+            }
+        }
+        Set<String> usedLogins = logins.isEmpty() ? new HashSet<>() : new HashSet<>(userRepository.findLoginsIn(logins));
+        Set<String> usedEmails = emails.isEmpty() ? new HashSet<>() : new HashSet<>(userRepository.findEmailsIgnoreCaseIn(emails));
+        List<AdminUserDTO> newUsers = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                AdminUserDTO userDTO = userDTOs.get(i);
+                String email = userDTO.getEmail() != null ? userDTO.getEmail().toLowerCase() : null;
+                if (!usedLogins.add(userDTO.getLogin().toLowerCase())) {
+                    results[i] = BulkItemResultVM.rejected(i, "userexists");
+                } else if (email != null && !usedEmails.add(email)) {
+                    results[i] = BulkItemResultVM.rejected(i, "emailexists");
+                } else {
+                    newUsers.add(userDTO);
+                }
+            }
+        }
+        Iterator<User> created = userService.createUsers(newUsers).iterator();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                User newUser = created.next();
+                mailService.sendCreationEmail(newUser);
+                results[i] = BulkItemResultVM.created(i, newUser.getId());
+            }
+        }
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createAlert(applicationName, newUsers.size() + " users are created", String.valueOf(newUsers.size())))
+            .body(Arrays.asList(results));
+    }
+
     /**
      * {@code PUT /admin/users} : Updates an existing User.
      *
@@ -176,6 +256,60 @@ public class UserResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /admin/users/_search?q=:query} : search the users by login prefix, email and names - calling this are only
+     * allowed for the administrators.
+     * <p>
+     * The users are ordered by a single property, {@code id} by default, and read with keyset pagination: the cursor of the
+     * next slice is sent in the {@code Link} header, and no count query is run.
+     *
+     * @param query the text to search.
+     * @param after the cursor of the last user already read.
+     * @param pageable the pagination information, only its size and sort are used.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the matching users, or with status
+     * {@code 400 (Bad Request)} if the query is blank or the sort is not allowed.
+     */
+    @GetMapping("/users/_search")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<AdminUserDTO>> searchUsers(
+        @RequestParam("q") String query,
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAM, required = false) String after,
+        Pageable pageable
+    ) {
+        log.debug("REST request to search a slice of User for an admin for query : {} after cursor : {}", query, after);
+        if (!onlyContainsAllowedProperties(pageable) || pageable.getSort().stream().count() > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (query.isBlank()) {
+            throw new BadRequestAlertException("The search query cannot be blank", "userManagement", "queryblank");
+        }
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+        Optional<KeysetPaginationUtil.SortedCursor> cursor = KeysetPaginationUtil.decodeSortedCursor(after, "userManagement");
+        Slice<AdminUserDTO> slice;
+        try {
+            slice =
+                userService.searchManagedUsers(
+                    query.strip(),
+                    order,
+                    cursor.map(KeysetPaginationUtil.SortedCursor::getValue).orElse(null),
+                    cursor.map(KeysetPaginationUtil.SortedCursor::getId).orElse(null),
+                    pageable.getPageSize()
+                );
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", "userManagement", "cursorinvalid");
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateCursorPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            user ->
+                KeysetPaginationUtil.encodeSortedCursor(
+                    PropertyAccessorFactory.forBeanPropertyAccess(user).getPropertyValue(order.getProperty()),
+                    user.getId()
+                )
+        );
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
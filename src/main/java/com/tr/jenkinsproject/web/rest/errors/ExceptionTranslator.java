@@ -1,5 +1,7 @@
 package com.tr.jenkinsproject.web.rest.errors;
 
+import com.tr.jenkinsproject.security.PasswordHashingUnavailableException;
+import com.tr.jenkinsproject.security.RateLimitExceededException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -14,6 +16,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -164,6 +167,22 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(ex, problem, request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder().withStatus(Status.SERVICE_UNAVAILABLE).withDetail(ex.getMessage()).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleRateLimitExceeded(RateLimitExceededException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder().withStatus(Status.TOO_MANY_REQUESTS).withDetail(ex.getMessage()).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return create(ex, problem, request, headers);
+    }
+
     @Override
     public ProblemBuilder prepare(final Throwable throwable, final StatusType status, final URI type) {
         Collection<String> activeProfiles = Arrays.asList(env.getActiveProfiles());
@@ -0,0 +1,13 @@
+package com.tr.jenkinsproject.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+public class PreconditionFailedException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String detail) {
+        super(ErrorConstants.DEFAULT_TYPE, "Precondition failed", Status.PRECONDITION_FAILED, detail);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tr.jenkinsproject.web.rest.util;
+
+import com.tr.jenkinsproject.repository.TableVersionRepository;
+import com.tr.jenkinsproject.web.rest.errors.PreconditionFailedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Utility class for the strong entity tags of the versioned entities, used in conditional requests.
+ * <p>
+ * The tag of an entity is its version, so a conditional {@code GET} can be answered {@code 304 (Not Modified)} after
+ * selecting the version column only. The tag of a list is a digest of the change counter of its table, see
+ * {@link TableVersionRepository}, and of the query string, so any change to the table gives a new tag to every list.
+ * <p>
+ * An entity whose representation embeds another versioned entity is tagged with both versions, so that a change to the
+ * embedded entity also gives a new tag. Only the first version is checked by {@code If-Match}, as only the entity itself
+ * is updated.
+ */
+public final class ETagUtil {
+
+    private static final String ANY = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final String EMBEDDED_VERSION_SEPARATOR = "-";
+
+    private ETagUtil() {}
+
+    /**
+     * Build the entity tag of an entity.
+     *
+     * @param version the version of the entity.
+     * @return the quoted entity tag.
+     */
+    public static String versionETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Build the entity tag of an entity embedding another versioned entity in its representation.
+     *
+     * @param version the version of the entity.
+     * @param embeddedVersion the version of the embedded entity, or {@code null} if there is none.
+     * @return the quoted entity tag.
+     */
+    public static String versionETag(long version, Long embeddedVersion) {
+        if (embeddedVersion == null) {
+            return versionETag(version);
+        }
+        return "\"" + version + EMBEDDED_VERSION_SEPARATOR + embeddedVersion + "\"";
+    }
+
+    /**
+     * Build the entity tag of a list of entities.
+     *
+     * @param tableVersion the change counter of the table of the entities.
+     * @param queryString the query string of the request, which selects the entities of the list.
+     * @return the quoted entity tag.
+     */
+    public static String tableETag(long tableVersion, String queryString) {
+        String state = tableVersion + "?" + queryString;
+        return "\"" + DigestUtils.md5DigestAsHex(state.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Check an {@code If-None-Match} header against the current entity tag, with the weak comparison.
+     *
+     * @param ifNoneMatch the value of the header.
+     * @param eTag the current entity tag.
+     * @return {@code true} if the client already has the current representation.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (ANY.equals(tag) || eTag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the version expected by an {@code If-Match} header.
+     *
+     * @param ifMatch the value of the header, or {@code null} if it was not sent.
+     * @return the expected version, or empty if no header was sent or it matches any version.
+     * @throws PreconditionFailedException {@code 412 (Precondition Failed)} if the header is not a single entity tag
+     * built by {@link #versionETag(long)} or {@link #versionETag(long, Long)}.
+     */
+    public static Optional<Long> parseIfMatchVersion(String ifMatch) {
+        if (ifMatch == null || ANY.equals(ifMatch.trim())) {
+            return Optional.empty();
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong entity tag");
+        }
+        String versions = tag.substring(1, tag.length() - 1);
+        int separator = versions.indexOf(EMBEDDED_VERSION_SEPARATOR);
+        try {
+            return Optional.of(Long.valueOf(separator < 0 ? versions : versions.substring(0, separator)));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the current entity tag");
+        }
+    }
+}
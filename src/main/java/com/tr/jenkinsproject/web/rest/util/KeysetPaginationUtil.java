@@ -0,0 +1,238 @@
+package com.tr.jenkinsproject.web.rest.util;
+
+import com.tr.jenkinsproject.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (seek) pagination.
+ * <p>
+ * Instead of a page number, clients send the opaque cursor of the last row they have seen in the {@code after}
+ * request parameter. The next slice is then read with an indexed {@code where id > ?} predicate, so neither an
+ * {@code OFFSET} nor a {@code count(*)} query is needed, however deep the client pages.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String CURSOR_PARAM = "after";
+
+    private static final String SIZE_PARAM = "size";
+
+    private static final String PAGE_PARAM = "page";
+
+    private static final String RANKED_CURSOR_SEPARATOR = ":";
+
+    private static final String SORTED_CURSOR_SEPARATOR = ":";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Encode the given identifier as an opaque cursor.
+     *
+     * @param id the identifier of the last row of a slice.
+     * @return the cursor.
+     */
+    public static String encodeCursor(long id) {
+        return encode(Long.toString(id));
+    }
+
+    /**
+     * Encode the given rank and identifier as an opaque cursor, for slices ordered by rank then identifier.
+     *
+     * @param rank the rank of the last row of a slice.
+     * @param id the identifier of the last row of a slice.
+     * @return the cursor.
+     */
+    public static String encodeCursor(float rank, long id) {
+        return encode(rank + RANKED_CURSOR_SEPARATOR + id);
+    }
+
+    /**
+     * Encode the given id and value as an opaque cursor, for slices ordered by that value then identifier.
+     *
+     * @param value the value of the ordered property of the last row of a slice, may be null.
+     * @param id the identifier of the last row of a slice.
+     * @return the cursor.
+     */
+    public static String encodeSortedCursor(Object value, long id) {
+        return encode(value == null ? Long.toString(id) : id + SORTED_CURSOR_SEPARATOR + value);
+    }
+
+    /**
+     * Decode a cursor previously built by {@link #encodeCursor(long)}.
+     *
+     * @param cursor     the cursor sent by the client, an empty cursor asks for the first slice.
+     * @param entityName the name of the paginated entity, used in the error message.
+     * @return the identifier to seek after, or empty for the first slice.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the cursor is not valid.
+     */
+    public static Optional<Long> decodeCursor(String cursor, String entityName) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.valueOf(decode(cursor)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Decode a cursor previously built by {@link #encodeCursor(float, long)}.
+     *
+     * @param cursor     the cursor sent by the client, an empty cursor asks for the first slice.
+     * @param entityName the name of the paginated entity, used in the error message.
+     * @return the rank and identifier to seek after, or empty for the first slice.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the cursor is not valid.
+     */
+    public static Optional<RankedCursor> decodeRankedCursor(String cursor, String entityName) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            String decoded = decode(cursor);
+            int separator = decoded.indexOf(RANKED_CURSOR_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing separator in cursor " + decoded);
+            }
+            float rank = Float.parseFloat(decoded.substring(0, separator));
+            long id = Long.parseLong(decoded.substring(separator + 1));
+            return Optional.of(new RankedCursor(rank, id));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Decode a cursor previously built by {@link #encodeSortedCursor(Object, long)}.
+     *
+     * @param cursor     the cursor sent by the client, an empty cursor asks for the first slice.
+     * @param entityName the name of the paginated entity, used in the error message.
+     * @return the identifier and value to seek after, or empty for the first slice.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the cursor is not valid.
+     */
+    public static Optional<SortedCursor> decodeSortedCursor(String cursor, String entityName) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            String decoded = decode(cursor);
+            int separator = decoded.indexOf(SORTED_CURSOR_SEPARATOR);
+            if (separator < 0) {
+                return Optional.of(new SortedCursor(Long.parseLong(decoded), null));
+            }
+            return Optional.of(new SortedCursor(Long.parseLong(decoded.substring(0, separator)), decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Generate the pagination headers for a slice read with keyset pagination.
+     * <p>
+     * A {@code Link} header with the {@code next} relation is only added when there is a next slice.
+     *
+     * @param uriBuilder  the uri builder of the current request.
+     * @param slice       the slice which was read.
+     * @param idExtractor the function giving the identifier of an element of the slice.
+     * @param <T>         the type of the elements of the slice.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generateKeysetPaginationHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        Slice<T> slice,
+        Function<T, Long> idExtractor
+    ) {
+        return generateCursorPaginationHttpHeaders(uriBuilder, slice, idExtractor.andThen(KeysetPaginationUtil::encodeCursor));
+    }
+
+    /**
+     * Generate the pagination headers for a slice read with keyset pagination, with cursors built by the given function.
+     *
+     * @param uriBuilder    the uri builder of the current request.
+     * @param slice         the slice which was read.
+     * @param cursorEncoder the function giving the cursor of an element of the slice.
+     * @param <T>           the type of the elements of the slice.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generateCursorPaginationHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        Slice<T> slice,
+        Function<T, String> cursorEncoder
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            String nextCursor = cursorEncoder.apply(content.get(content.size() - 1));
+            String link = uriBuilder
+                .replaceQueryParam(PAGE_PARAM)
+                .replaceQueryParam(CURSOR_PARAM, nextCursor)
+                .replaceQueryParam(SIZE_PARAM, slice.getSize())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The position of the last row of a slice ordered by rank then identifier.
+     */
+    public static final class RankedCursor {
+
+        private final float rank;
+
+        private final long id;
+
+        RankedCursor(float rank, long id) {
+            this.rank = rank;
+            this.id = id;
+        }
+
+        public float getRank() {
+            return rank;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+
+    /**
+     * The position of the last row of a slice ordered by a property then identifier.
+     */
+    public static final class SortedCursor {
+
+        private final long id;
+
+        private final String value;
+
+        SortedCursor(long id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * @return the value of the ordered property, or {@code null} if it was null.
+         */
+        public String getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Utilities used by Spring MVC REST controllers.
+ */
+package com.tr.jenkinsproject.web.rest.util;
@@ -0,0 +1,43 @@
+package com.tr.jenkinsproject.web.rest.vm;
+
+import java.util.List;
+
+/**
+ * View Model object for the result of a request fetching several entities by id.
+ *
+ * @param <T> the type of the fetched entities.
+ */
+public class BatchGetResultVM<T> {
+
+    private final List<T> items;
+
+    private final List<Long> missingIds;
+
+    public BatchGetResultVM(List<T> items, List<Long> missingIds) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+
+    /**
+     * @return the entities found, in the order of their ids in the request.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return the requested ids which match no entity, in request order.
+     */
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatchGetResultVM{" +
+            "items=" + items.size() +
+            ", missingIds=" + missingIds.size() +
+            "}";
+    }
+}
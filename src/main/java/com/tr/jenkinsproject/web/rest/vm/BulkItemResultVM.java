@@ -0,0 +1,62 @@
+package com.tr.jenkinsproject.web.rest.vm;
+
+/**
+ * View Model object for the result of one item of a bulk request.
+ */
+public class BulkItemResultVM {
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+    }
+
+    private final int index;
+
+    private final Long id;
+
+    private final Status status;
+
+    private final String message;
+
+    private BulkItemResultVM(int index, Long id, Status status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BulkItemResultVM created(int index, Long id) {
+        return new BulkItemResultVM(index, id, Status.CREATED, null);
+    }
+
+    public static BulkItemResultVM rejected(int index, String errorKey) {
+        return new BulkItemResultVM(index, null, Status.REJECTED, "error." + errorKey);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkItemResultVM{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status=" + status +
+            ", message='" + message + '\'' +
+            "}";
+    }
+}
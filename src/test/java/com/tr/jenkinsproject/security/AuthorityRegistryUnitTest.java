@@ -0,0 +1,65 @@
+package com.tr.jenkinsproject.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.tr.jenkinsproject.domain.Authority;
+import com.tr.jenkinsproject.repository.AuthorityRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Test class for the {@link AuthorityRegistry} utility class.
+ */
+class AuthorityRegistryUnitTest {
+
+    private AuthorityRepository authorityRepository;
+
+    private AuthorityRegistry authorityRegistry;
+
+    @BeforeEach
+    public void setup() {
+        authorityRepository = mock(AuthorityRepository.class);
+        when(authorityRepository.findAll(any(Sort.class)))
+            .thenReturn(List.of(authority(AuthoritiesConstants.ADMIN), authority(AuthoritiesConstants.USER)));
+        authorityRegistry = new AuthorityRegistry(authorityRepository);
+    }
+
+    @Test
+    void testAuthoritiesAreLoadedOnce() {
+        assertThat(authorityRegistry.getNames()).containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        assertThat(authorityRegistry.contains(AuthoritiesConstants.USER)).isTrue();
+        assertThat(authorityRegistry.contains("ROLE_UNKNOWN")).isFalse();
+
+        verify(authorityRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void testGetReferenceOfKnownAuthority() {
+        assertThat(authorityRegistry.getReference(AuthoritiesConstants.USER)).hasValue(authority(AuthoritiesConstants.USER));
+        assertThat(authorityRegistry.getReference("ROLE_UNKNOWN")).isEmpty();
+    }
+
+    @Test
+    void testRefreshPicksUpNewAuthorities() {
+        assertThat(authorityRegistry.contains("ROLE_AUDITOR")).isFalse();
+        when(authorityRepository.findAll(any(Sort.class)))
+            .thenReturn(List.of(authority(AuthoritiesConstants.ADMIN), authority("ROLE_AUDITOR"), authority(AuthoritiesConstants.USER)));
+
+        authorityRegistry.refresh();
+
+        assertThat(authorityRegistry.getNames()).containsExactly(AuthoritiesConstants.ADMIN, "ROLE_AUDITOR", AuthoritiesConstants.USER);
+    }
+
+    private static Authority authority(String name) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        return authority;
+    }
+}
@@ -0,0 +1,22 @@
+package com.tr.jenkinsproject.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link BCryptStrengthCalibrator} utility class.
+ */
+class BCryptStrengthCalibratorUnitTest {
+
+    @Test
+    void testCalibrationSkippedWithoutBudget() {
+        assertThat(BCryptStrengthCalibrator.calibrate(0, 10)).isEqualTo(10);
+    }
+
+    @Test
+    void testCalibrationWithinBounds() {
+        assertThat(BCryptStrengthCalibrator.calibrate(1, 10)).isEqualTo(10);
+        assertThat(BCryptStrengthCalibrator.calibrate(60_000, 4)).isBetween(5, BCryptStrengthCalibrator.MAXIMUM_STRENGTH);
+    }
+}
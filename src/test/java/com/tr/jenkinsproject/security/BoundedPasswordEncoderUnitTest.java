@@ -0,0 +1,136 @@
+package com.tr.jenkinsproject.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Test class for the {@link BoundedPasswordEncoder}.
+ */
+class BoundedPasswordEncoderUnitTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private MeterRegistry meterRegistry;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), 1, 1, 3, meterRegistry);
+    }
+
+    @AfterEach
+    void cleanup() {
+        release.countDown();
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    void testDelegatesToEncoder() {
+        release.countDown();
+
+        assertThat(passwordEncoder.encode("password")).isEqualTo("{encoded}password");
+        assertThat(passwordEncoder.matches("password", "{encoded}password")).isTrue();
+        assertThat(passwordEncoder.matches("other", "{encoded}password")).isFalse();
+    }
+
+    @Test
+    @Timeout(10)
+    void testRejectsWhenSaturated() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("running"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("queued"));
+        while (meterRegistry.get("executor.queued").tag("name", "passwordHashing").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> passwordEncoder.encode("rejected"))
+            .isInstanceOf(PasswordHashingUnavailableException.class)
+            .extracting("retryAfterSeconds")
+            .isEqualTo(3L);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("{encoded}running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{encoded}queued");
+    }
+
+    @Test
+    void testEncodeAllKeepsTheOrderOfThePasswords() {
+        release.countDown();
+
+        assertThat(passwordEncoder.encodeAll(List.of("first", "second", "third"), 2))
+            .containsExactly("{encoded}first", "{encoded}second", "{encoded}third");
+    }
+
+    @Test
+    @Timeout(10)
+    void testEncodeAllWaitsForItsOwnHashesWhenSaturated() throws Exception {
+        CompletableFuture<List<String>> hashes = CompletableFuture.supplyAsync(() ->
+            passwordEncoder.encodeAll(List.of("first", "second", "third", "fourth"), 4)
+        );
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        release.countDown();
+        assertThat(hashes.get(5, TimeUnit.SECONDS))
+            .containsExactly("{encoded}first", "{encoded}second", "{encoded}third", "{encoded}fourth");
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isZero();
+    }
+
+    @Test
+    @Timeout(10)
+    void testEncodeAllRejectedWhenSaturatedByOthers() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("running"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("queued"));
+        while (meterRegistry.get("executor.queued").tag("name", "passwordHashing").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // none of the passwords is hashed, the whole bulk is rejected
+        assertThatThrownBy(() -> passwordEncoder.encodeAll(List.of("first", "second"), 2))
+            .isInstanceOf(PasswordHashingUnavailableException.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("{encoded}running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{encoded}queued");
+    }
+
+    /**
+     * Encoder blocking until released, to saturate the pool.
+     */
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{encoded}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -11,6 +11,8 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,8 +37,17 @@ class DomainUserDetailsServiceIT {
     @Autowired
     private UserDetailsService domainUserDetailsService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @BeforeEach
     public void init() {
+        cacheManager.getCache(UserDetailsCache.USER_DETAILS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(UserDetailsCache.USER_DETAILS_BY_EMAIL_CACHE).clear();
+
         User userOne = new User();
         userOne.setLogin(USER_ONE_LOGIN);
         userOne.setPassword(RandomStringUtils.random(60));
@@ -108,4 +119,28 @@ class DomainUserDetailsServiceIT {
         assertThatExceptionOfType(UserNotActivatedException.class)
             .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN));
     }
+
+    @Test
+    void assertThatCachedUserIsReturnedAsCopy() {
+        UserDetails userDetails = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        ((CredentialsContainer) userDetails).eraseCredentials();
+
+        assertThat(userDetailsCache.getByLogin(USER_ONE_LOGIN)).isPresent();
+        assertThat(userDetailsCache.getByEmail(USER_ONE_EMAIL)).isPresent();
+        UserDetails cachedUserDetails = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        assertThat(cachedUserDetails).isNotSameAs(userDetails);
+        assertThat(cachedUserDetails.getPassword()).isNotNull();
+    }
+
+    @Test
+    void assertThatEvictedUserIsLoadedAgain() {
+        domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        User userOne = userRepository.findOneByLogin(USER_ONE_LOGIN).orElseThrow();
+        userOne.setPassword(RandomStringUtils.random(60));
+        userDetailsCache.evict(userOne);
+
+        assertThat(userDetailsCache.getByLogin(USER_ONE_LOGIN)).isEmpty();
+        assertThat(userDetailsCache.getByEmail(USER_ONE_EMAIL)).isEmpty();
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_ONE_EMAIL).getPassword()).isEqualTo(userOne.getPassword());
+    }
 }
@@ -0,0 +1,99 @@
+package com.tr.jenkinsproject.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tr.jenkinsproject.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link RateLimiter}.
+ */
+class RateLimiterUnitTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Security.RateLimit rateLimit = applicationProperties.getSecurity().getRateLimit();
+        rateLimit.getPerClient().setCapacity(3);
+        rateLimit.getPerClient().setRefillPeriodSeconds(3600);
+        rateLimit.getPerLogin().setCapacity(2);
+        rateLimit.getPerLogin().setRefillPeriodSeconds(3600);
+    }
+
+    @Test
+    void testClientLimitedPerPath() {
+        RateLimiter rateLimiter = new RateLimiter(applicationProperties, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquireForClient("/api/authenticate", "10.0.0.1")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquireForClient("/api/authenticate", "10.0.0.1")).isPositive();
+        assertThat(RateLimiter.retryAfterSeconds(rateLimiter.tryAcquireForClient("/api/authenticate", "10.0.0.1"))).isBetween(1L, 1200L);
+
+        assertThat(rateLimiter.tryAcquireForClient("/api/authenticate", "10.0.0.2")).isZero();
+        assertThat(rateLimiter.tryAcquireForClient("/api/register", "10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquireForClient("/api/account", "10.0.0.1")).isZero();
+        assertThat(meterRegistry.get("rate.limit.rejected").tag("limit", "/api/authenticate").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testLoginLimitedPerClient() {
+        RateLimiter rateLimiter = new RateLimiter(applicationProperties, meterRegistry);
+
+        rateLimiter.acquireForLogin("user", "10.0.0.1");
+        rateLimiter.acquireForLogin("user", "10.0.0.1");
+
+        assertThatThrownBy(() -> rateLimiter.checkLogin("user", "10.0.0.1")).isInstanceOf(RateLimitExceededException.class);
+        assertThatThrownBy(() -> rateLimiter.acquireForLogin("user", "10.0.0.1")).isInstanceOf(RateLimitExceededException.class);
+        rateLimiter.checkLogin("user", "10.0.0.2");
+        rateLimiter.acquireForLogin("user", "10.0.0.2");
+        rateLimiter.acquireForLogin("admin", "10.0.0.1");
+        assertThat(meterRegistry.get("rate.limit.rejected").tag("limit", "login").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testLoginLimitKeptWhenClientTriesManyLogins() {
+        RateLimiter rateLimiter = new RateLimiter(applicationProperties, meterRegistry);
+
+        rateLimiter.acquireForLogin("user", "10.0.0.1");
+        rateLimiter.acquireForLogin("user", "10.0.0.1");
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.acquireForLogin("user" + i, "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> rateLimiter.checkLogin("user", "10.0.0.1")).isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void testCheckLoginTakesNoToken() {
+        RateLimiter rateLimiter = new RateLimiter(applicationProperties, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.checkLogin("user", "10.0.0.1");
+        }
+        rateLimiter.acquireForLogin("user", "10.0.0.1");
+        rateLimiter.acquireForLogin("user", "10.0.0.1");
+
+        assertThatThrownBy(() -> rateLimiter.checkLogin("user", "10.0.0.1")).isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void testDisabled() {
+        applicationProperties.getSecurity().getRateLimit().setEnabled(false);
+        RateLimiter rateLimiter = new RateLimiter(applicationProperties, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquireForClient("/api/authenticate", "10.0.0.1")).isZero();
+            rateLimiter.acquireForLogin("user", "10.0.0.1");
+        }
+    }
+}
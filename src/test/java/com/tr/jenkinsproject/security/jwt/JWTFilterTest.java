@@ -1,10 +1,17 @@
 package com.tr.jenkinsproject.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import com.tr.jenkinsproject.config.ApplicationProperties;
+import com.tr.jenkinsproject.repository.AuthorityRepository;
+import com.tr.jenkinsproject.repository.RevokedTokenRepository;
 import com.tr.jenkinsproject.security.AuthoritiesConstants;
+import com.tr.jenkinsproject.security.AuthorityRegistry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +29,8 @@ class JWTFilterTest {
 
     private TokenProvider tokenProvider;
 
+    private TokenRevocationList tokenRevocationList;
+
     private JWTFilter jwtFilter;
 
     @BeforeEach
@@ -29,11 +38,13 @@ class JWTFilterTest {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
-        tokenProvider = new TokenProvider(jHipsterProperties);
+        AuthorityRegistry authorityRegistry = new AuthorityRegistry(mock(AuthorityRepository.class));
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), authorityRegistry);
         ReflectionTestUtils.setField(tokenProvider, "key", Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
-        jwtFilter = new JWTFilter(tokenProvider);
+        tokenRevocationList = new TokenRevocationList(mock(RevokedTokenRepository.class));
+        jwtFilter = new JWTFilter(new JWTAuthenticationCache(tokenProvider, tokenRevocationList, new SimpleMeterRegistry()));
         SecurityContextHolder.getContext().setAuthentication(null);
     }
 
@@ -56,6 +67,50 @@ class JWTFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication().getCredentials()).hasToString(jwt);
     }
 
+    @Test
+    void testJWTFilterReusedToken() throws Exception {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false);
+        for (int i = 0; i < 2; i++) {
+            SecurityContextHolder.getContext().setAuthentication(null);
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+            request.setRequestURI("/api/test");
+            jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("test-user");
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting("authority")
+                .containsExactly(AuthoritiesConstants.USER);
+        }
+    }
+
+    @Test
+    void testJWTFilterRevokedToken() throws Exception {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        request.setRequestURI("/api/test");
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("test-user");
+
+        Claims claims = tokenProvider.verifyToken(jwt).orElseThrow();
+        tokenRevocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+        SecurityContextHolder.getContext().setAuthentication(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtFilter.doFilter(request, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
     @Test
     void testJWTFilterInvalidToken() throws Exception {
         String jwt = "wrong_jwt";
@@ -1,17 +1,31 @@
 package com.tr.jenkinsproject.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import com.tr.jenkinsproject.config.ApplicationProperties;
+import com.tr.jenkinsproject.domain.Authority;
+import com.tr.jenkinsproject.repository.AuthorityRepository;
 import com.tr.jenkinsproject.security.AuthoritiesConstants;
+import com.tr.jenkinsproject.security.AuthorityRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.KeyPair;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,16 +37,20 @@ class TokenProviderTest {
 
     private static final long ONE_MINUTE = 60000;
 
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
     private Key key;
     private TokenProvider tokenProvider;
+    private AuthorityRegistry authorityRegistry;
 
     @BeforeEach
     public void setup() {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
-        String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
-        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
-        tokenProvider = new TokenProvider(jHipsterProperties);
-        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        authorityRegistry = new AuthorityRegistry(mock(AuthorityRepository.class));
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), authorityRegistry);
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(BASE64_SECRET));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
@@ -83,13 +101,25 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testVerifyTokenReturnsClaimsWithTokenId() {
+        String firstToken = tokenProvider.createToken(createAuthentication(), false);
+        String secondToken = tokenProvider.createToken(createAuthentication(), false);
+
+        Claims firstClaims = tokenProvider.verifyToken(firstToken).orElseThrow();
+        Claims secondClaims = tokenProvider.verifyToken(secondToken).orElseThrow();
+
+        assertThat(firstClaims.getSubject()).isEqualTo("anonymous");
+        assertThat(firstClaims.getId()).isNotBlank().isNotEqualTo(secondClaims.getId());
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret(secret);
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), authorityRegistry);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -101,12 +131,152 @@ class TokenProviderTest {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), authorityRegistry);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    @Test
+    void testHmacTokenProviderPublishesNoKeys() {
+        assertThat(tokenProvider.getJsonWebKeys()).isEmpty();
+    }
+
+    @Test
+    void testEs256TokenIsSignedWithKeyIdAndPublished() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        TokenProvider es256TokenProvider = createEs256TokenProvider(createSigningKey("first", keyPair, true));
+
+        String token = es256TokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(es256TokenProvider.verifyToken(token)).isPresent();
+        assertThat(Jwts.parserBuilder().setSigningKey(keyPair.getPublic()).build().parseClaimsJws(token).getHeader())
+            .containsEntry(JwsHeader.KEY_ID, "first")
+            .containsEntry(JwsHeader.ALGORITHM, "ES256");
+        assertThat(es256TokenProvider.getJsonWebKeys())
+            .singleElement()
+            .satisfies(jwk -> {
+                assertThat(jwk).containsEntry("kty", "EC").containsEntry("crv", "P-256").containsEntry("kid", "first");
+                assertThat(Decoders.BASE64URL.decode((String) jwk.get("x"))).hasSize(32);
+                assertThat(Decoders.BASE64URL.decode((String) jwk.get("y"))).hasSize(32);
+            });
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void testEs256TokenIsVerifiedWithPreviousKeyAfterRotation() {
+        KeyPair firstKeyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair secondKeyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        TokenProvider beforeRotation = createEs256TokenProvider(createSigningKey("first", firstKeyPair, true));
+        TokenProvider afterRotation = createEs256TokenProvider(
+            createSigningKey("second", secondKeyPair, true),
+            createSigningKey("first", firstKeyPair, false)
+        );
+        TokenProvider afterRemoval = createEs256TokenProvider(createSigningKey("second", secondKeyPair, true));
+
+        String previousToken = beforeRotation.createToken(createAuthentication(), false);
+        String currentToken = afterRotation.createToken(createAuthentication(), false);
+
+        assertThat(afterRotation.validateToken(previousToken)).isTrue();
+        assertThat(afterRotation.validateToken(currentToken)).isTrue();
+        assertThat(afterRotation.getJsonWebKeys()).extracting(jwk -> jwk.get("kid")).containsExactly("second", "first");
+        assertThat(afterRemoval.validateToken(previousToken)).isFalse();
+        assertThat(beforeRotation.validateToken(currentToken)).isFalse();
+    }
+
+    @Test
+    void testEs256FailsWhenNoKeyIsSet() {
+        assertThatThrownBy(this::createEs256TokenProvider).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testEs256FailsWhenPrivateKeyDoesNotMatchPublicKey() {
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        ApplicationProperties.Security.Jwt.SigningKey signingKey = createSigningKey("first", keyPair, true);
+        signingKey.setPublicKey(Encoders.BASE64.encode(Keys.keyPairFor(SignatureAlgorithm.ES256).getPublic().getEncoded()));
+
+        assertThatThrownBy(() -> createEs256TokenProvider(signingKey))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("does not match");
+    }
+
+    @Test
+    void testCompactAuthoritiesAreDecodedIntoSharedInstances() {
+        AuthorityRegistry registry = createAuthorityRegistry(AuthoritiesConstants.ADMIN, AuthoritiesConstants.ANONYMOUS);
+        TokenProvider compactTokenProvider = createCompactTokenProvider(registry);
+
+        String token = compactTokenProvider.createToken(createAuthentication(), false);
+        Claims claims = compactTokenProvider.verifyToken(token).orElseThrow();
+
+        assertThat(claims).doesNotContainKey("auth").containsKeys("authv", "authm");
+        assertThat(compactTokenProvider.getAuthentication(claims, token).getAuthorities())
+            .singleElement()
+            .isSameAs(registry.getAuthority(AuthoritiesConstants.ANONYMOUS));
+    }
+
+    @Test
+    void testCompactAuthoritiesFallBackToNamesWhenAuthorityIsUnknown() {
+        TokenProvider compactTokenProvider = createCompactTokenProvider(createAuthorityRegistry(AuthoritiesConstants.ADMIN));
+
+        String token = compactTokenProvider.createToken(createAuthentication(), false);
+        Claims claims = compactTokenProvider.verifyToken(token).orElseThrow();
+
+        assertThat(claims).containsEntry("auth", AuthoritiesConstants.ANONYMOUS).doesNotContainKey("authm");
+        assertThat(compactTokenProvider.getAuthentication(claims, token).getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    void testCompactAuthoritiesOfUnknownVersionAreRejected() {
+        TokenProvider issuer = createCompactTokenProvider(createAuthorityRegistry(AuthoritiesConstants.ANONYMOUS));
+        TokenProvider verifier = createCompactTokenProvider(
+            createAuthorityRegistry(AuthoritiesConstants.ADMIN, AuthoritiesConstants.ANONYMOUS)
+        );
+
+        String token = issuer.createToken(createAuthentication(), false);
+        Claims claims = verifier.verifyToken(token).orElseThrow();
+
+        assertThatThrownBy(() -> verifier.getAuthentication(claims, token)).isInstanceOf(MalformedJwtException.class);
+    }
+
+    private AuthorityRegistry createAuthorityRegistry(String... names) {
+        AuthorityRepository repository = mock(AuthorityRepository.class);
+        List<Authority> authorities = new ArrayList<>();
+        for (String name : names) {
+            Authority authority = new Authority();
+            authority.setName(name);
+            authorities.add(authority);
+        }
+        when(repository.findAll(any(Sort.class))).thenReturn(authorities);
+        return new AuthorityRegistry(repository);
+    }
+
+    private TokenProvider createCompactTokenProvider(AuthorityRegistry authorityRegistry) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setCompactAuthorities(true);
+        return new TokenProvider(jHipsterProperties, applicationProperties, authorityRegistry);
+    }
+
+    private TokenProvider createEs256TokenProvider(ApplicationProperties.Security.Jwt.SigningKey... signingKeys) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm("ES256");
+        applicationProperties.getSecurity().getJwt().setKeys(Arrays.asList(signingKeys));
+        return new TokenProvider(new JHipsterProperties(), applicationProperties, authorityRegistry);
+    }
+
+    private ApplicationProperties.Security.Jwt.SigningKey createSigningKey(String id, KeyPair keyPair, boolean withPrivateKey) {
+        ApplicationProperties.Security.Jwt.SigningKey signingKey = new ApplicationProperties.Security.Jwt.SigningKey();
+        signingKey.setId(id);
+        signingKey.setPublicKey(Encoders.BASE64.encode(keyPair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            signingKey.setPrivateKey(Encoders.BASE64.encode(keyPair.getPrivate().getEncoded()));
+        }
+        return signingKey;
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
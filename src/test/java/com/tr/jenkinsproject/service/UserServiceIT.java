@@ -5,15 +5,25 @@ import static org.mockito.Mockito.when;
 
 import com.tr.jenkinsproject.IntegrationTest;
 import com.tr.jenkinsproject.config.Constants;
+import com.tr.jenkinsproject.domain.Authority;
 import com.tr.jenkinsproject.domain.User;
+import com.tr.jenkinsproject.repository.AuthorityRepository;
+import com.tr.jenkinsproject.repository.SchedulerLockRepository;
 import com.tr.jenkinsproject.repository.UserRepository;
+import com.tr.jenkinsproject.security.AuthoritiesConstants;
 import com.tr.jenkinsproject.service.dto.AdminUserDTO;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import javax.persistence.EntityManager;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,7 +32,12 @@ import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -50,9 +65,24 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @MockBean
     private DateTimeProvider dateTimeProvider;
 
@@ -74,6 +104,14 @@ class UserServiceIT {
         auditingHandler.setDateTimeProvider(dateTimeProvider);
     }
 
+    @AfterEach
+    public void releaseSchedulerLocks() {
+        // The locks are committed in their own transactions, so they are not rolled back with the test
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("delete from jhi_scheduler_lock"));
+    }
+
     @Test
     @Transactional
     void assertThatUserMustExistToResetPassword() {
@@ -148,6 +186,47 @@ class UserServiceIT {
         userRepository.delete(user);
     }
 
+    @Test
+    @Transactional
+    void assertThatAuthoritiesAreLinkedWithoutBeingLoaded() {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(DEFAULT_LOGIN);
+        userDTO.setEmail(DEFAULT_EMAIL);
+        userDTO.setAuthorities(Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+        AdminUserDTO bulkUserDTO = new AdminUserDTO();
+        bulkUserDTO.setLogin("bulk-" + DEFAULT_LOGIN);
+        bulkUserDTO.setEmail("bulk-" + DEFAULT_EMAIL);
+        bulkUserDTO.setAuthorities(Set.of(AuthoritiesConstants.USER));
+        // The authorities are loaded once by the registry, before counting
+        userService.getAuthorities();
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            userService.createUser(userDTO);
+            em.flush();
+            userService.createUsers(List.of(bulkUserDTO));
+
+            EntityStatistics authorityStatistics = statistics.getEntityStatistics(Authority.class.getName());
+            assertThat(authorityStatistics.getLoadCount()).isZero();
+            assertThat(authorityStatistics.getFetchCount()).isZero();
+            assertThat(statistics.getEntityStatistics(User.class.getName()).getInsertCount()).isEqualTo(2);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        em.clear();
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN).orElseThrow().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+        assertThat(userRepository.findOneWithAuthoritiesByLogin("bulk-" + DEFAULT_LOGIN).orElseThrow().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactly(AuthoritiesConstants.USER);
+    }
+
     @Test
     @Transactional
     void assertThatNotActivatedUsersWithNotNullActivationKeyCreatedBefore3DaysAreDeleted() {
@@ -182,4 +261,62 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional
+    void assertThatNotActivatedUsersAreDeletedByChunksWithTheirAuthorities() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        for (int i = 0; i < 5; i++) {
+            User notActivatedUser = new User();
+            notActivatedUser.setLogin("not-activated-" + i);
+            notActivatedUser.setPassword(RandomStringUtils.random(60));
+            notActivatedUser.setActivated(false);
+            notActivatedUser.setActivationKey(RandomStringUtils.random(20));
+            notActivatedUser.setEmail("not-activated-" + i + "@localhost");
+            notActivatedUser.getAuthorities().add(authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow());
+            userRepository.saveAndFlush(notActivatedUser);
+        }
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.random(20));
+        User dbUser = userRepository.saveAndFlush(user);
+        dbUser.setCreatedDate(now);
+        userRepository.saveAndFlush(dbUser);
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(now.minus(3, ChronoUnit.DAYS)))
+            .isEmpty();
+        assertThat(userRepository.findById(dbUser.getId())).isPresent();
+    }
+
+    @Test
+    @Transactional
+    void assertThatNotActivatedUsersAreNotDeletedWhileAnotherInstanceHoldsTheLock() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.random(20));
+        User dbUser = userRepository.saveAndFlush(user);
+        schedulerLockRepository.tryLock(UserPurgeService.LOCK_NAME, now, now.plus(1, ChronoUnit.HOURS), "another-instance");
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findById(dbUser.getId())).isPresent();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatSchedulerLockIsCommittedAndRefusedToAnotherInstance() {
+        Instant now = Instant.now();
+
+        assertThat(schedulerLockRepository.tryLock(UserPurgeService.LOCK_NAME, now, now.plus(1, ChronoUnit.HOURS), "instance-1"))
+            .isTrue();
+        assertThat(schedulerLockRepository.tryLock(UserPurgeService.LOCK_NAME, now, now.plus(1, ChronoUnit.HOURS), "instance-2"))
+            .isFalse();
+
+        schedulerLockRepository.unlock(UserPurgeService.LOCK_NAME, now, "instance-1");
+        assertThat(schedulerLockRepository.tryLock(UserPurgeService.LOCK_NAME, now, now.plus(1, ChronoUnit.HOURS), "instance-2"))
+            .isTrue();
+    }
 }
@@ -19,7 +19,10 @@ import com.tr.jenkinsproject.web.rest.vm.KeyAndPasswordVM;
 import com.tr.jenkinsproject.web.rest.vm.ManagedUserVM;
 import java.time.Instant;
 import java.util.*;
+import javax.persistence.EntityManager;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -54,6 +57,9 @@ class AccountResourceIT {
     @Autowired
     private MockMvc restAccountMockMvc;
 
+    @Autowired
+    private EntityManager em;
+
     @Test
     @WithUnauthenticatedMockUser
     void testNonAuthenticatedUser() throws Exception {
@@ -531,6 +537,46 @@ class AccountResourceIT {
         assertThat(updatedUser.getEmail()).isEqualTo("save-existing-email-and-login@example.com");
     }
 
+    @Test
+    @Transactional
+    @WithMockUser("save-own-email-ignore-case")
+    void testSaveOwnEmailIgnoreCase() throws Exception {
+        User user = new User();
+        user.setLogin("save-own-email-ignore-case");
+        user.setEmail("save-own-email-ignore-case@example.com");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin("not-used");
+        userDTO.setFirstName("firstname");
+        userDTO.setLastName("lastname");
+        userDTO.setEmail("Save-Own-Email-Ignore-Case@example.com");
+        userDTO.setActivated(false);
+        userDTO.setImageUrl("http://placehold.it/50x50");
+        userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
+        userDTO.setAuthorities(Collections.singleton(AuthoritiesConstants.ADMIN));
+
+        // The user is read once, and the email is not looked up as it did not change
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            restAccountMockMvc
+                .perform(post("/api/account").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(userDTO)))
+                .andExpect(status().isOk());
+
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        User updatedUser = userRepository.findOneByLogin("save-own-email-ignore-case").orElse(null);
+        assertThat(updatedUser.getEmail()).isEqualTo("save-own-email-ignore-case@example.com");
+        assertThat(updatedUser.getFirstName()).isEqualTo("firstname");
+    }
+
     @Test
     @Transactional
     @WithMockUser("change-password-wrong-existing-password")
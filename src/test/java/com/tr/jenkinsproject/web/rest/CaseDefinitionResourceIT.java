@@ -2,12 +2,14 @@ package com.tr.jenkinsproject.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.tr.jenkinsproject.IntegrationTest;
 import com.tr.jenkinsproject.domain.CaseDefinition;
 import com.tr.jenkinsproject.repository.CaseDefinitionRepository;
+import com.tr.jenkinsproject.web.rest.util.KeysetPaginationUtil;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,9 +18,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -40,6 +44,7 @@ class CaseDefinitionResourceIT {
 
     private static final String ENTITY_API_URL = "/api/case-definitions";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String ENTITY_SEARCH_API_URL = "/api/_search/case-definitions";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -139,6 +144,100 @@ class CaseDefinitionResourceIT {
             .andExpect(jsonPath("$.[*].active").value(hasItem(DEFAULT_ACTIVE.booleanValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllCaseDefinitionsNotModified() throws Exception {
+        // Initialize the database
+        caseDefinitionRepository.saveAndFlush(caseDefinition);
+
+        // Get all the caseDefinitionList and its entity tag
+        String eTag = restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // The list is not modified until a caseDefinition changes
+        restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        caseDefinitionRepository.saveAndFlush(createUpdatedEntity(em));
+
+        restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    @Transactional
+    void getAllCaseDefinitionsModifiedByUpdateAndDelete() throws Exception {
+        // Initialize the database
+        caseDefinitionRepository.saveAndFlush(caseDefinition);
+
+        String eTag = restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // The conditional update is a bulk update, which is counted by the resource
+        CaseDefinition updatedCaseDefinition = caseDefinitionRepository.findById(caseDefinition.getId()).get();
+        em.detach(updatedCaseDefinition);
+        updatedCaseDefinition.name(UPDATED_NAME);
+        restCaseDefinitionMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedCaseDefinition.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedCaseDefinition))
+            )
+            .andExpect(status().isOk());
+
+        String updatedETag = restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // The removal is counted when flushed, which the commit of the request does outside of the test transaction
+        restCaseDefinitionMockMvc.perform(delete(ENTITY_API_URL_ID, caseDefinition.getId())).andExpect(status().isNoContent());
+        em.flush();
+
+        restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, updatedETag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(updatedETag)));
+    }
+
+    @Test
+    @Transactional
+    void getAllCaseDefinitionsWithCursor() throws Exception {
+        // Initialize the database
+        caseDefinitionRepository.saveAndFlush(caseDefinition);
+        CaseDefinition otherCaseDefinition = caseDefinitionRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the caseDefinitions after the first one
+        restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&after=" + KeysetPaginationUtil.encodeCursor(caseDefinition.getId())))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(otherCaseDefinition.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(UPDATED_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getAllCaseDefinitionsWithInvalidCursor() throws Exception {
+        restCaseDefinitionMockMvc.perform(get(ENTITY_API_URL + "?after=invalid")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getCaseDefinition() throws Exception {
@@ -156,6 +255,133 @@ class CaseDefinitionResourceIT {
             .andExpect(jsonPath("$.active").value(DEFAULT_ACTIVE.booleanValue()));
     }
 
+    @Test
+    @Transactional
+    void getAllCaseDefinitionsByNameIsEqualToSomething() throws Exception {
+        // Initialize the database
+        caseDefinitionRepository.saveAndFlush(caseDefinition);
+
+        // Get all the caseDefinitionList where name equals to DEFAULT_NAME
+        defaultCaseDefinitionShouldBeFound("name.equals=" + DEFAULT_NAME);
+
+        // Get all the caseDefinitionList where name equals to UPDATED_NAME
+        defaultCaseDefinitionShouldNotBeFound("name.equals=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllCaseDefinitionsByNameContainsSomething() throws Exception {
+        // Initialize the database
+        caseDefinitionRepository.saveAndFlush(caseDefinition);
+
+        // Get all the caseDefinitionList where name contains DEFAULT_NAME
+        defaultCaseDefinitionShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the caseDefinitionList where name contains UPDATED_NAME
+        defaultCaseDefinitionShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllCaseDefinitionsByActiveIsEqualToSomething() throws Exception {
+        // Initialize the database
+        caseDefinitionRepository.saveAndFlush(caseDefinition);
+
+        // Get all the caseDefinitionList where active equals to DEFAULT_ACTIVE
+        defaultCaseDefinitionShouldBeFound("active.equals=" + DEFAULT_ACTIVE);
+
+        // Get all the caseDefinitionList where active equals to UPDATED_ACTIVE
+        defaultCaseDefinitionShouldNotBeFound("active.equals=" + UPDATED_ACTIVE);
+    }
+
+    @Test
+    @Transactional
+    void getAllCaseDefinitionsByNameWithCursor() throws Exception {
+        // Initialize the database
+        caseDefinitionRepository.saveAndFlush(caseDefinition);
+        caseDefinitionRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the first slice of the caseDefinitionList where name equals to UPDATED_NAME
+        restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&name.equals=" + UPDATED_NAME))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItem(UPDATED_NAME)))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(caseDefinition.getId().intValue()))));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultCaseDefinitionShouldBeFound(String filter) throws Exception {
+        restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(caseDefinition.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)))
+            .andExpect(jsonPath("$.[*].active").value(hasItem(DEFAULT_ACTIVE.booleanValue())));
+
+        // Check, that the count call also returns 1
+        restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultCaseDefinitionShouldNotBeFound(String filter) throws Exception {
+        restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restCaseDefinitionMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+    @Test
+    @Transactional
+    void searchCaseDefinitions() throws Exception {
+        // Initialize the database
+        caseDefinitionRepository.saveAndFlush(caseDefinition);
+        CaseDefinition otherCaseDefinition = caseDefinitionRepository.saveAndFlush(createEntity(em));
+        caseDefinitionRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Search the caseDefinitions one by one, following the cursor of the next slice
+        MvcResult firstSlice = restCaseDefinitionMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?size=1&q=" + DEFAULT_NAME.toLowerCase()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(caseDefinition.getId().intValue())))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn();
+        String link = firstSlice.getResponse().getHeader(HttpHeaders.LINK);
+        String nextSliceUrl = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        restCaseDefinitionMockMvc
+            .perform(get(nextSliceUrl))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(otherCaseDefinition.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(not(hasItem(UPDATED_NAME))))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void searchCaseDefinitionsWithBlankQuery() throws Exception {
+        restCaseDefinitionMockMvc.perform(get(ENTITY_SEARCH_API_URL + "?q= ")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingCaseDefinition() throws Exception {
@@ -194,6 +420,30 @@ class CaseDefinitionResourceIT {
         assertThat(testCaseDefinition.getActive()).isEqualTo(UPDATED_ACTIVE);
     }
 
+    @Test
+    @Transactional
+    void putWithStaleVersionCaseDefinition() throws Exception {
+        // Initialize the database
+        caseDefinitionRepository.saveAndFlush(caseDefinition);
+
+        // Update the caseDefinition with a version which is not the current one
+        CaseDefinition updatedCaseDefinition = caseDefinitionRepository.findById(caseDefinition.getId()).get();
+        em.detach(updatedCaseDefinition);
+        updatedCaseDefinition.name(UPDATED_NAME).version(updatedCaseDefinition.getVersion() - 1);
+
+        restCaseDefinitionMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedCaseDefinition.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedCaseDefinition))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the CaseDefinition in the database is unchanged
+        CaseDefinition testCaseDefinition = caseDefinitionRepository.findById(caseDefinition.getId()).get();
+        assertThat(testCaseDefinition.getName()).isEqualTo(DEFAULT_NAME);
+    }
+
     @Test
     @Transactional
     void putNonExistingCaseDefinition() throws Exception {
@@ -214,6 +464,21 @@ class CaseDefinitionResourceIT {
         assertThat(caseDefinitionList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void putNonExistingCaseDefinitionWithIfMatchAny() throws Exception {
+        caseDefinition.setId(count.incrementAndGet());
+
+        restCaseDefinitionMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, caseDefinition.getId())
+                    .header(HttpHeaders.IF_MATCH, "*")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(caseDefinition))
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @Transactional
     void putWithIdMismatchCaseDefinition() throws Exception {
@@ -2,24 +2,34 @@ package com.tr.jenkinsproject.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tr.jenkinsproject.IntegrationTest;
+import com.tr.jenkinsproject.domain.CaseDefinition;
 import com.tr.jenkinsproject.domain.Examine;
 import com.tr.jenkinsproject.repository.ExamineRepository;
+import com.tr.jenkinsproject.web.rest.util.KeysetPaginationUtil;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Integration tests for the {@link ExamineResource} REST controller.
@@ -31,6 +41,7 @@ class ExamineResourceIT {
 
     private static final String DEFAULT_NAME = "AAAAAAAAAA";
     private static final String UPDATED_NAME = "BBBBBBBBBB";
+    private static final String UPDATED_CASE_DEFINITION_NAME = "CCCCCCCCCC";
 
     private static final String ENTITY_API_URL = "/api/examines";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
@@ -47,6 +58,12 @@ class ExamineResourceIT {
     @Autowired
     private MockMvc restExamineMockMvc;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private Examine examine;
 
     /**
@@ -110,6 +127,33 @@ class ExamineResourceIT {
         assertThat(examineList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createExaminesInBulk() throws Exception {
+        int databaseSizeBeforeCreate = examineRepository.findAll().size();
+        Examine examineWithExistingId = createEntity(em);
+        examineWithExistingId.setId(1L);
+
+        // Create the Examines, the one with an existing ID must be rejected
+        restExamineMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(examine, examineWithExistingId, createUpdatedEntity(em))))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[0].id").isNumber())
+            .andExpect(jsonPath("$.[1].status").value("REJECTED"))
+            .andExpect(jsonPath("$.[1].message").value("error.idexists"))
+            .andExpect(jsonPath("$.[2].status").value("CREATED"));
+
+        // Validate the Examines in the database
+        List<Examine> examineList = examineRepository.findAll();
+        assertThat(examineList).hasSize(databaseSizeBeforeCreate + 2);
+        assertThat(examineList).extracting(Examine::getName).contains(DEFAULT_NAME, UPDATED_NAME);
+    }
+
     @Test
     @Transactional
     void getAllExamines() throws Exception {
@@ -125,6 +169,117 @@ class ExamineResourceIT {
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
     }
 
+    @Test
+    @Transactional
+    void getAllExaminesWithCaseDefinition() throws Exception {
+        // Initialize the database
+        CaseDefinition caseDefinition = CaseDefinitionResourceIT.createEntity(em);
+        em.persist(caseDefinition);
+        examine.setFk_examine__case_definition_id(caseDefinition);
+        examineRepository.saveAndFlush(examine);
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // Get all the examineList with their case definition
+            restExamineMockMvc
+                .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(examine.getId().intValue())))
+                .andExpect(jsonPath("$.[*].fk_examine__case_definition_id.id").value(hasItem(caseDefinition.getId().intValue())));
+            long statementsForOneExamine = statistics.getPrepareStatementCount();
+
+            // A page of examines with distinct case definitions is read with as many statements
+            for (int i = 0; i < 3; i++) {
+                CaseDefinition otherCaseDefinition = CaseDefinitionResourceIT.createEntity(em);
+                em.persist(otherCaseDefinition);
+                examineRepository.saveAndFlush(createEntity(em).fk_examine__case_definition_id(otherCaseDefinition));
+            }
+            em.clear();
+            statistics.clear();
+            restExamineMockMvc.perform(get(ENTITY_API_URL + "?sort=id,desc")).andExpect(status().isOk());
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsForOneExamine);
+            assertThat(statistics.getEntityStatistics(CaseDefinition.class.getName()).getFetchCount()).isZero();
+
+            // An examine is read with its case definition in a single statement
+            em.clear();
+            statistics.clear();
+            restExamineMockMvc
+                .perform(get(ENTITY_API_URL_ID, examine.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fk_examine__case_definition_id.id").value(caseDefinition.getId().intValue()));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllExaminesWithCursor() throws Exception {
+        // Initialize the database
+        examineRepository.saveAndFlush(examine);
+        Examine otherExamine = examineRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the examines after the first one
+        restExamineMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&after=" + KeysetPaginationUtil.encodeCursor(examine.getId())))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(otherExamine.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(UPDATED_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getAllExaminesWithInvalidCursor() throws Exception {
+        restExamineMockMvc.perform(get(ENTITY_API_URL + "?after=invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportExamines() throws Exception {
+        // The export reads the examines in its own transaction, so they are committed, more than are read between two
+        // clears of the persistence context
+        List<Examine> newExamines = new ArrayList<>();
+        for (int i = 0; i < 2 * ExamineRepository.STREAM_FETCH_SIZE + 1; i++) {
+            newExamines.add(createEntity(em));
+        }
+        List<Long> ids = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status ->
+            examineRepository.insertAll(newExamines).forEach(saved -> ids.add(saved.getId()))
+        );
+        try {
+            MvcResult mvcResult = restExamineMockMvc
+                .perform(get(ENTITY_API_URL + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            String content = restExamineMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+            // One line per examine, in id order
+            String[] lines = content.split("\n");
+            assertThat(lines).hasSize((int) examineRepository.count());
+            List<Long> exportedIds = new ArrayList<>(lines.length);
+            for (String line : lines) {
+                exportedIds.add(objectMapper.readTree(line).get("id").asLong());
+            }
+            assertThat(exportedIds).isSorted().doesNotHaveDuplicates().containsAll(ids);
+            assertThat(objectMapper.readTree(lines[exportedIds.indexOf(ids.get(0))]).get("name").asText()).isEqualTo(DEFAULT_NAME);
+        } finally {
+            examineRepository.deleteAllByIdInBatch(ids);
+        }
+    }
+
     @Test
     @Transactional
     void getExamine() throws Exception {
@@ -140,6 +295,165 @@ class ExamineResourceIT {
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
     }
 
+    @Test
+    @Transactional
+    void getAllExaminesByNameIsEqualToSomething() throws Exception {
+        // Initialize the database
+        examineRepository.saveAndFlush(examine);
+
+        // Get all the examineList where name equals to DEFAULT_NAME
+        defaultExamineShouldBeFound("name.equals=" + DEFAULT_NAME);
+
+        // Get all the examineList where name equals to UPDATED_NAME
+        defaultExamineShouldNotBeFound("name.equals=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllExaminesByNameContainsSomething() throws Exception {
+        // Initialize the database
+        examineRepository.saveAndFlush(examine);
+
+        // Get all the examineList where name contains DEFAULT_NAME
+        defaultExamineShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the examineList where name contains UPDATED_NAME
+        defaultExamineShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllExaminesByCaseDefinitionIsInSomething() throws Exception {
+        // Initialize the database
+        CaseDefinition caseDefinition = CaseDefinitionResourceIT.createEntity(em);
+        em.persist(caseDefinition);
+        em.flush();
+        examine.setFk_examine__case_definition_id(caseDefinition);
+        examineRepository.saveAndFlush(examine);
+        Long caseDefinitionId = caseDefinition.getId();
+
+        // Get all the examineList where caseDefinitionId in caseDefinitionId
+        defaultExamineShouldBeFound("caseDefinitionId.in=" + caseDefinitionId);
+
+        // Get all the examineList where caseDefinitionId in (caseDefinitionId + 1)
+        defaultExamineShouldNotBeFound("caseDefinitionId.in=" + (caseDefinitionId + 1));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultExamineShouldBeFound(String filter) throws Exception {
+        restExamineMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(examine.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+
+        // Check, that the count call also returns 1
+        restExamineMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultExamineShouldNotBeFound(String filter) throws Exception {
+        restExamineMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restExamineMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+    @Test
+    @Transactional
+    void getNotModifiedExamine() throws Exception {
+        // Initialize the database
+        examineRepository.saveAndFlush(examine);
+
+        // Get the examine and its entity tag
+        String eTag = restExamineMockMvc
+            .perform(get(ENTITY_API_URL_ID, examine.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Get the examine again with its entity tag
+        restExamineMockMvc
+            .perform(get(ENTITY_API_URL_ID, examine.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getModifiedExamineAfterCaseDefinitionUpdate() throws Exception {
+        // Initialize the database
+        CaseDefinition caseDefinition = CaseDefinitionResourceIT.createEntity(em);
+        em.persist(caseDefinition);
+        examine.setFk_examine__case_definition_id(caseDefinition);
+        examineRepository.saveAndFlush(examine);
+
+        // Get the examine and its entity tag
+        String eTag = restExamineMockMvc
+            .perform(get(ENTITY_API_URL_ID, examine.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Update the case definition only, the version of the examine doesn't change
+        caseDefinition.setName(UPDATED_CASE_DEFINITION_NAME);
+        em.flush();
+        em.clear();
+
+        // Get the examine again with its entity tag, the embedded case definition changed
+        restExamineMockMvc
+            .perform(get(ENTITY_API_URL_ID, examine.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.fk_examine__case_definition_id.name").value(UPDATED_CASE_DEFINITION_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getExaminesByIds() throws Exception {
+        // Initialize the database
+        examineRepository.saveAndFlush(examine);
+        Examine otherExamine = examineRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the examines in request order, with the missing id
+        restExamineMockMvc
+            .perform(get(ENTITY_API_URL + "?ids=" + otherExamine.getId() + "," + Long.MAX_VALUE + "," + examine.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.items.length()").value(2))
+            .andExpect(jsonPath("$.items[0].id").value(otherExamine.getId().intValue()))
+            .andExpect(jsonPath("$.items[1].id").value(examine.getId().intValue()))
+            .andExpect(jsonPath("$.missingIds.length()").value(1))
+            .andExpect(jsonPath("$.missingIds[0]").value(Long.MAX_VALUE));
+    }
+
+    @Test
+    @Transactional
+    void getExaminesByInvalidIds() throws Exception {
+        restExamineMockMvc.perform(get(ENTITY_API_URL + "?ids=1,a")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingExamine() throws Exception {
@@ -176,6 +490,55 @@ class ExamineResourceIT {
         assertThat(testExamine.getName()).isEqualTo(UPDATED_NAME);
     }
 
+    @Test
+    @Transactional
+    void putWithStaleVersionExamine() throws Exception {
+        // Initialize the database
+        examineRepository.saveAndFlush(examine);
+
+        // Update the examine with a version which is not the current one
+        Examine updatedExamine = examineRepository.findById(examine.getId()).get();
+        em.detach(updatedExamine);
+        updatedExamine.name(UPDATED_NAME).version(updatedExamine.getVersion() - 1);
+
+        restExamineMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedExamine.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedExamine))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Examine in the database is unchanged
+        Examine testExamine = examineRepository.findById(examine.getId()).get();
+        assertThat(testExamine.getName()).isEqualTo(DEFAULT_NAME);
+    }
+
+    @Test
+    @Transactional
+    void putWithStaleIfMatchExamine() throws Exception {
+        // Initialize the database
+        examineRepository.saveAndFlush(examine);
+
+        // Update the examine with an entity tag which is not the current one
+        Examine updatedExamine = examineRepository.findById(examine.getId()).get();
+        em.detach(updatedExamine);
+        updatedExamine.name(UPDATED_NAME);
+
+        restExamineMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedExamine.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (updatedExamine.getVersion() + 1) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedExamine))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Examine in the database is unchanged
+        Examine testExamine = examineRepository.findById(examine.getId()).get();
+        assertThat(testExamine.getName()).isEqualTo(DEFAULT_NAME);
+    }
+
     @Test
     @Transactional
     void putNonExistingExamine() throws Exception {
@@ -196,6 +559,50 @@ class ExamineResourceIT {
         assertThat(examineList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void putExamineReturnsStoredCaseDefinition() throws Exception {
+        // Initialize the database
+        CaseDefinition caseDefinition = CaseDefinitionResourceIT.createEntity(em);
+        em.persist(caseDefinition);
+        examineRepository.saveAndFlush(examine);
+
+        // Update the examine with a case definition sent by id only
+        Examine updatedExamine = examineRepository.findById(examine.getId()).get();
+        em.detach(updatedExamine);
+        CaseDefinition caseDefinitionStub = new CaseDefinition();
+        caseDefinitionStub.setId(caseDefinition.getId());
+        updatedExamine.name(UPDATED_NAME).setFk_examine__case_definition_id(caseDefinitionStub);
+        long expectedVersion = updatedExamine.getVersion() + 1;
+
+        restExamineMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedExamine.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedExamine))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + expectedVersion + "-" + caseDefinition.getVersion() + "\""))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME))
+            .andExpect(jsonPath("$.version").value((int) expectedVersion))
+            .andExpect(jsonPath("$.fk_examine__case_definition_id.name").value(caseDefinition.getName()));
+    }
+
+    @Test
+    @Transactional
+    void putNonExistingExamineWithIfMatchAny() throws Exception {
+        examine.setId(count.incrementAndGet());
+
+        restExamineMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, examine.getId())
+                    .header(HttpHeaders.IF_MATCH, "*")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(examine))
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @Transactional
     void putWithIdMismatchExamine() throws Exception {
@@ -0,0 +1,36 @@
+package com.tr.jenkinsproject.web.rest;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.tr.jenkinsproject.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link JwksResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+class JwksResourceIT {
+
+    @Autowired
+    private MockMvc restJwksMockMvc;
+
+    @Test
+    @WithUnauthenticatedMockUser
+    void getJsonWebKeySetWithoutAuthentication() throws Exception {
+        restJwksMockMvc
+            .perform(get("/.well-known/jwks.json").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=300")))
+            .andExpect(jsonPath("$.keys").isArray())
+            .andExpect(jsonPath("$.keys").isEmpty());
+    }
+}
@@ -1,22 +1,27 @@
 package com.tr.jenkinsproject.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.jayway.jsonpath.JsonPath;
 import com.tr.jenkinsproject.IntegrationTest;
 import com.tr.jenkinsproject.domain.User;
 import com.tr.jenkinsproject.repository.UserRepository;
 import com.tr.jenkinsproject.web.rest.vm.LoginVM;
+import com.tr.jenkinsproject.web.rest.vm.RefreshTokenVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -56,6 +61,7 @@ class UserJWTControllerIT {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id_token").isString())
             .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
             .andExpect(header().string("Authorization", not(nullValue())))
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
@@ -80,10 +86,116 @@ class UserJWTControllerIT {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id_token").isString())
             .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
             .andExpect(header().string("Authorization", not(nullValue())))
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    void testLogoutRevokesToken() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-logout");
+        user.setEmail("user-jwt-controller-logout@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-logout");
+        login.setPassword("test");
+        String authorization = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("Authorization");
+
+        mockMvc.perform(get("/api/account").header("Authorization", authorization)).andExpect(status().isOk());
+        mockMvc.perform(post("/api/logout").header("Authorization", authorization)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/account").header("Authorization", authorization)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    void testRefreshRotatesToken() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-refresh");
+        user.setEmail("user-jwt-controller-refresh@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-refresh");
+        login.setPassword("test");
+        String content = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        RefreshTokenVM refreshToken = new RefreshTokenVM();
+        refreshToken.setRefreshToken(JsonPath.read(content, "$.refresh_token"));
+
+        String authorization = mockMvc
+            .perform(
+                post("/api/token/refresh").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(refreshToken))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").value(not(refreshToken.getRefreshToken())))
+            .andReturn()
+            .getResponse()
+            .getHeader("Authorization");
+        mockMvc.perform(get("/api/account").header("Authorization", authorization)).andExpect(status().isOk());
+
+        // a refresh token can only be used once
+        mockMvc
+            .perform(
+                post("/api/token/refresh").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(refreshToken))
+            )
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRefreshFailsWithUnknownToken() throws Exception {
+        RefreshTokenVM refreshToken = new RefreshTokenVM();
+        refreshToken.setRefreshToken("unknown-refresh-token");
+        mockMvc
+            .perform(
+                post("/api/token/refresh").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(refreshToken))
+            )
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void testAuthorizeUpgradesPasswordEncoding() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-upgrade");
+        user.setEmail("user-jwt-controller-upgrade@example.com");
+        user.setActivated(true);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-upgrade");
+        login.setPassword("test");
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk());
+
+        User updatedUser = userRepository.findOneByLogin("user-jwt-controller-upgrade").orElseThrow();
+        assertThat(updatedUser.getPassword()).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.matches("test", updatedUser.getPassword())).isTrue();
+    }
+
     @Test
     void testAuthorizeFails() throws Exception {
         LoginVM login = new LoginVM();
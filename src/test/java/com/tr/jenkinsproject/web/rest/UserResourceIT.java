@@ -3,6 +3,7 @@ package com.tr.jenkinsproject.web.rest;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -20,10 +21,13 @@ import java.util.*;
 import java.util.function.Consumer;
 import javax.persistence.EntityManager;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -144,6 +148,61 @@ class UserResourceIT {
         });
     }
 
+    @Test
+    @Transactional
+    void createUsersInBulk() throws Exception {
+        userRepository.saveAndFlush(user);
+        int databaseSizeBeforeCreate = userRepository.findAll().size();
+
+        AdminUserDTO newUser = createBulkUser("bulk-user", "bulk-user@localhost");
+        AdminUserDTO existingLogin = createBulkUser(DEFAULT_LOGIN.toUpperCase(), "bulk-other@localhost");
+        AdminUserDTO existingEmail = createBulkUser("bulk-other", DEFAULT_EMAIL.toUpperCase());
+        AdminUserDTO duplicateLogin = createBulkUser("bulk-user", "bulk-duplicate@localhost");
+        AdminUserDTO invalidLogin = createBulkUser("bulk user!", "bulk-invalid@localhost");
+        AdminUserDTO withId = createBulkUser("bulk-id", "bulk-id@localhost");
+        withId.setId(DEFAULT_ID);
+        AdminUserDTO otherNewUser = createBulkUser("bulk-user-2", "bulk-user-2@localhost");
+
+        // Create the Users, only the first and the last ones are valid and unique
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        TestUtil.convertObjectToJsonBytes(
+                            List.of(newUser, existingLogin, existingEmail, duplicateLogin, invalidLogin, withId, otherNewUser)
+                        )
+                    )
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[0].id").isNumber())
+            .andExpect(jsonPath("$.[1].message").value("error.userexists"))
+            .andExpect(jsonPath("$.[2].message").value("error.emailexists"))
+            .andExpect(jsonPath("$.[3].message").value("error.userexists"))
+            .andExpect(jsonPath("$.[4].message").value("error.validation"))
+            .andExpect(jsonPath("$.[5].message").value("error.idexists"))
+            .andExpect(jsonPath("$.[6].status").value("CREATED"));
+
+        // Validate the Users in the database
+        assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeCreate + 2));
+        User testUser = userRepository.findOneWithAuthoritiesByLogin("bulk-user").orElseThrow();
+        assertThat(testUser.getEmail()).isEqualTo("bulk-user@localhost");
+        assertThat(testUser.getPassword()).isNotBlank();
+        assertThat(testUser.getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+    }
+
+    private AdminUserDTO createBulkUser(String login, String email) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(login);
+        userDTO.setEmail(email);
+        userDTO.setFirstName(DEFAULT_FIRSTNAME);
+        userDTO.setLastName(DEFAULT_LASTNAME);
+        userDTO.setLangKey(DEFAULT_LANGKEY);
+        userDTO.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
+        return userDTO;
+    }
+
     @Test
     @Transactional
     void createUserWithExistingId() throws Exception {
@@ -249,6 +308,113 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithAuthorities() throws Exception {
+        // Initialize the database
+        Authority userAuthority = em.find(Authority.class, AuthoritiesConstants.USER);
+        Authority adminAuthority = em.find(Authority.class, AuthoritiesConstants.ADMIN);
+        user.setAuthorities(new HashSet<>(Set.of(userAuthority)));
+        userRepository.saveAndFlush(user);
+        User adminUser = createEntity(em);
+        adminUser.setAuthorities(new HashSet<>(Set.of(userAuthority, adminAuthority)));
+        userRepository.saveAndFlush(adminUser);
+        long userCount = userRepository.count();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // Get the last two users, in the order of the page
+            restUserMockMvc
+                .perform(get("/api/admin/users?sort=id,desc&size=2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].login").value(adminUser.getLogin()))
+                .andExpect(jsonPath("$[0].authorities").value(hasItems(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)))
+                .andExpect(jsonPath("$[1].login").value(DEFAULT_LOGIN))
+                .andExpect(jsonPath("$[1].authorities").value(hasItems(AuthoritiesConstants.USER)))
+                .andExpect(header().string("X-Total-Count", String.valueOf(userCount)));
+
+            // The ids of the page, their count, and the users fetched with their authorities
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+            assertThat(statistics.getCollectionStatistics(User.class.getName() + ".authorities").getFetchCount()).isZero();
+
+            // A larger page takes the same statements
+            em.clear();
+            statistics.clear();
+            restUserMockMvc
+                .perform(get("/api/admin/users?sort=id,desc&size=4").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+            assertThat(statistics.getCollectionStatistics(User.class.getName() + ".authorities").getFetchCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void searchUsers() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        User otherUser = createEntity(em);
+        otherUser.setLogin("searchother");
+        otherUser.setEmail("searchother@localhost");
+        otherUser.setLastName("doerr");
+        userRepository.saveAndFlush(otherUser);
+        User noLastNameUser = createEntity(em);
+        noLastNameUser.setLogin("searchnolastname");
+        noLastNameUser.setEmail("janedoe@localhost");
+        noLastNameUser.setLastName(null);
+        userRepository.saveAndFlush(noLastNameUser);
+
+        // Read the users matching the last names and emails one by one, the user without last name last
+        String link = restUserMockMvc
+            .perform(get("/api/admin/users/_search?q=DOE&size=1&sort=lastName,desc").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].login").value(hasItem("searchother")))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LINK);
+        link =
+            restUserMockMvc
+                .perform(get(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
+                .andExpect(header().exists(HttpHeaders.LINK))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LINK);
+        restUserMockMvc
+            .perform(get(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].login").value(hasItem("searchnolastname")))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        // The login only matches by prefix
+        restUserMockMvc
+            .perform(get("/api/admin/users/_search?q=searchoth"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].login").value(hasItem("searchother")));
+        restUserMockMvc
+            .perform(get("/api/admin/users/_search?q=nolastname"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].login").value(not(hasItem("searchnolastname"))));
+    }
+
+    @Test
+    @Transactional
+    void searchUsersWithBlankQueryOrUnknownSort() throws Exception {
+        restUserMockMvc.perform(get("/api/admin/users/_search?q= ")).andExpect(status().isBadRequest());
+        restUserMockMvc.perform(get("/api/admin/users/_search?q=doe&sort=password,asc")).andExpect(status().isBadRequest());
+        restUserMockMvc.perform(get("/api/admin/users/_search?q=doe&after=invalid")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {